@@ -0,0 +1,58 @@
+package testlog.benchmark;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.slf4j.event.Level;
+import testlog.impl.Log4jLevelUtil;
+
+/**
+ * Baseline appenders of Log4j, one that synchronizes every log event in {@link AppenderSkeleton#doAppend}, like most
+ * appenders of Log4j do, and one that does not, like the callback appender of the library, which never did. Log4j 1.2
+ * synchronizes on the logger while it calls the appenders anyway, so the lock of the appender is never contended, and
+ * these only differ by the cost of taking it
+ */
+public class Log4jBaselineAppenders implements BaselineAppenders {
+    private Appender appender;
+
+    @Override
+    public void attach(boolean synchronizing) {
+        appender = synchronizing ? new SynchronizedAppender() : new UnsynchronizedAppender();
+        Logger.getRootLogger().addAppender(appender);
+    }
+
+    @Override
+    public void detach() {
+        Logger.getRootLogger().removeAppender(appender);
+    }
+
+    private static class SynchronizedAppender extends AppenderSkeleton {
+        private long capturedCount;
+
+        @Override
+        public void close() {
+            ; // nothing to close
+        }
+
+        @Override
+        public boolean requiresLayout() {
+            return false;
+        }
+
+        @Override
+        protected void append(LoggingEvent event) {
+            if (Log4jLevelUtil.convertLevel(event.getLevel()).toInt() >= Level.WARN.toInt()) {
+                capturedCount++;
+            }
+        }
+    }
+
+    private static class UnsynchronizedAppender extends SynchronizedAppender {
+        @Override
+        public void doAppend(LoggingEvent event) {
+            // like AppenderSkeleton, but without its lock, and without its threshold and closed checks
+            append(event);
+        }
+    }
+}
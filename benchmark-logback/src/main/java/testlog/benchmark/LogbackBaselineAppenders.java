@@ -0,0 +1,63 @@
+package testlog.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import testlog.impl.LogbackLevelUtil;
+
+/**
+ * Baseline appenders of Logback, on the base classes that the callback appender of the library extended before and
+ * after it stopped synchronizing
+ */
+public class LogbackBaselineAppenders implements BaselineAppenders {
+    private Appender<ILoggingEvent> appender;
+
+    @Override
+    public void attach(boolean synchronizing) {
+        Logger rootLogger = getRootLogger();
+        appender = synchronizing ? new SynchronizedAppender() : new UnsynchronizedAppender();
+        appender.setContext(rootLogger.getLoggerContext());
+        appender.start();
+        rootLogger.addAppender(appender);
+    }
+
+    @Override
+    public void detach() {
+        getRootLogger().detachAppender(appender);
+        appender.stop();
+    }
+
+    private static Logger getRootLogger() {
+        return (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+    }
+
+    private static boolean isCaptured(ILoggingEvent event) {
+        return LogbackLevelUtil.convertLevel(event.getLevel()).toInt() >= Level.WARN.toInt();
+    }
+
+    private static class SynchronizedAppender extends AppenderBase<ILoggingEvent> {
+        private long capturedCount;
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            if (isCaptured(event)) {
+                capturedCount++;
+            }
+        }
+    }
+
+    private static class UnsynchronizedAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+        private long capturedCount;
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            if (isCaptured(event)) {
+                capturedCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package testlog.benchmark;
+
+/**
+ * Appenders of the logging implementation that the benchmark runs with, which only do what the callback appender of the
+ * library does for a log event below the minimum level, that is to convert its level and compare that. One of these
+ * synchronizes every log event, like the callback appenders of the library used to, and the other does not, like these
+ * do now. Implementations are registered in {@code META-INF/services/testlog.benchmark.BaselineAppenders}
+ */
+public interface BaselineAppenders {
+    /**
+     * Attach an appender to the root logger.
+     *
+     * @param synchronizing true for the appender that synchronizes every log event
+     */
+    void attach(boolean synchronizing);
+
+    /**
+     * Detach the appender that was attached.
+     */
+    void detach();
+}
@@ -0,0 +1,156 @@
+package testlog.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import testlog.LogAsserter;
+import testlog.LogItem;
+import testlog.MutedLogAsserter;
+import testlog.history.BoundedHistory;
+import testlog.strategy.AssertionStrategy;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of application logging, while a log asserter is set up in the various ways that tests use it. The logging
+ * implementation is whatever the benchmark runs with, which is configured to discard its output, so that only the
+ * overhead of the log asserter remains. Run with the GC profiler to also see the allocation per logged event
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaptureBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(CaptureBenchmark.class);
+
+    @Param
+    public Scenario scenario;
+
+    private BaselineAppenders baselineAppenders;
+
+    private LogAsserter logAsserter;
+
+    @Benchmark
+    public void logEvent() {
+        logger.info("request {} handled in {}ms", "42", 17);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (scenario) {
+            case NONE:
+                break;
+            case MUTED:
+                logAsserter = MutedLogAsserter.setupMutedLogAsserter(org.slf4j.event.Level.WARN);
+                break;
+            case BELOW_THRESHOLD:
+                logAsserter = LogAsserter.setUpLogAsserter(org.slf4j.event.Level.WARN);
+                break;
+            case CAPTURING:
+                logAsserter = LogAsserter.setUpLogAsserter(org.slf4j.event.Level.INFO);
+                logAsserter.setHistory(new BoundedHistory(1000));
+                logAsserter.expect(new CaptureAllStrategy());
+                break;
+            case SYNCHRONIZED_APPENDER:
+            case UNSYNCHRONIZED_APPENDER:
+                baselineAppenders = ServiceLoader.load(BaselineAppenders.class).iterator().next();
+                baselineAppenders.attach(scenario == Scenario.SYNCHRONIZED_APPENDER);
+                break;
+            default:
+                throw new IllegalStateException(scenario.toString());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (scenario == Scenario.CAPTURING) {
+            // the expectations are never settled
+            logAsserter.expect(LogAsserter.NOOP_STRATEGY);
+        }
+        if (logAsserter != null) {
+            logAsserter.tearDown();
+        }
+        if (baselineAppenders != null) {
+            baselineAppenders.detach();
+        }
+    }
+
+    public enum Scenario {
+        /**
+         * No log asserter at all, as the baseline
+         */
+        NONE,
+
+        /**
+         * Muted log asserter of which the log events are below the minimum level, so that these are only muted
+         */
+        MUTED,
+
+        /**
+         * Log asserter of which the log events are below the minimum level, so that these are not captured
+         */
+        BELOW_THRESHOLD,
+
+        /**
+         * Log asserter that captures the log events, and matches them against its expectations
+         */
+        CAPTURING,
+
+        /**
+         * No log asserter, but an appender that synchronizes every log event, and otherwise does what the callback
+         * appender does for log events below the minimum level, to compare {@link #UNSYNCHRONIZED_APPENDER} with
+         */
+        SYNCHRONIZED_APPENDER,
+
+        /**
+         * No log asserter, but an appender that does what the callback appender does for log events below the minimum
+         * level, without synchronizing
+         */
+        UNSYNCHRONIZED_APPENDER
+    }
+
+    /**
+     * Strategy that expects any number of log items, so that every log item is captured and matched
+     */
+    private static class CaptureAllStrategy implements AssertionStrategy {
+        @Override
+        public String describeRemainingExpectations() {
+            return "any number of log items";
+        }
+
+        @Override
+        public int getRemainingCount() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public boolean hasRemainingExpectations() {
+            return true;
+        }
+
+        @Override
+        public boolean matchesNextExpectation(LogItem logItem) {
+            return true;
+        }
+
+        @Override
+        public void removeLaterExpectationForEfficiency(LogItem logItem) {
+            ; // every log item matches
+        }
+    }
+}
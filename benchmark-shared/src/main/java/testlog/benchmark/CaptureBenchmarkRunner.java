@@ -0,0 +1,33 @@
+package testlog.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link CaptureBenchmark} with 1, 8 and 32 threads, also on machines with fewer processors, with the GC
+ * profiler for the allocation per logged event. Any arguments are passed to JMH, like {@code -rf json} for a result file
+ */
+public class CaptureBenchmarkRunner {
+    private static final int[] THREAD_COUNTS = {1, 8, 32};
+
+    private CaptureBenchmarkRunner() {
+        ; // utility classes should not have a public or default constructor
+    }
+
+    public static void main(String... args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        for (int threads : THREAD_COUNTS) {
+            new Runner(new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .include(CaptureBenchmark.class.getSimpleName())
+                    .addProfiler(GCProfiler.class)
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+}
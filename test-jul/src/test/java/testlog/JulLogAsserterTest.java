@@ -0,0 +1,109 @@
+package testlog;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.impl.Logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JulLogAsserterTest extends AbstractLogAsserterTest {
+    @Test
+    public void testDelegate() {
+        try (LogAsserter subject = LogAsserter.setUpLogAsserter(Level.WARN)) {
+            Logging actual = subject.getDelegate();
+            assertEquals("JulLogging", actual.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void testJulParameters() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        Logger.getLogger("testlog.jul").log(java.util.logging.Level.SEVERE, "severe statement {0}", 1);
+
+        try {
+            subject.tearDown();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertEquals("Unexpected ERROR log during test execution with the following message: "
+                    + "severe statement 1\n"
+                    + "History:\n"
+                    + " (1) ERROR: severe statement 1\n"
+                    + " (1) -- this is the one that caused the log asserter to fail --\n"
+                    + "(now follows once more the stacktrace for the log item that caused this)",
+                    exception.getMessage());
+        }
+    }
+
+    private static Logger getRootLogger() {
+        return Logger.getLogger("");
+    }
+
+    @Override
+    protected LogAsserter callLogAsserterConstructor(Level level) {
+        return new LogAsserter(level);
+    }
+
+    @Override
+    protected LogAsserter callSubjectSetUpLogAsserter(Level level) {
+        return LogAsserter.setUpLogAsserter(level);
+    }
+
+    @Override
+    protected CaptureInfoAppender createAppender() {
+        return new JulCaptureInfoHandler();
+    }
+
+    @Override
+    protected boolean isMuted() {
+        return false;
+    }
+
+    @Override
+    protected void enableTraceLogging() {
+        getRootLogger().setLevel(java.util.logging.Level.ALL);
+    }
+
+    private static class JulCaptureInfoHandler extends Handler implements CaptureInfoAppender {
+        private List<String> messages = new ArrayList<>();
+
+        @Override
+        public void assertMessages(String... expected) {
+            assertEquals(asList(expected), messages);
+        }
+
+        @Override
+        public void close() {
+            ; // nothing to close
+        }
+
+        @Override
+        public void flush() {
+            ; // nothing to flush
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel().equals(java.util.logging.Level.INFO)) {
+                messages.add(record.getMessage());
+            }
+        }
+
+        @Override
+        public void register() {
+            getRootLogger().addHandler(this);
+        }
+
+        @Override
+        public void unregister() {
+            getRootLogger().removeHandler(this);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package testlog;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import testlog.impl.Logging;
+
+import java.io.ByteArrayOutputStream;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JulLogMuterTest extends AbstractLogMuterTest {
+    private Handler testHandler = new HandlerForTest();
+
+    @Before
+    public void setUp() {
+        Logger.getLogger("").addHandler(testHandler);
+    }
+
+    @After
+    public void tearDown() {
+        Logger.getLogger("").removeHandler(testHandler);
+    }
+
+    @Test
+    public void testDelegate() {
+        try (LogMuter subject = LogMuter.setupLogMuter()) {
+            Logging actual = subject.getDelegate();
+            assertEquals("JulLogging", actual.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void testMuteDetachesHandlersThatBypassFilters() {
+        LogMuter subject = LogMuter.setupLogMuter();
+        assertFalse(asList(Logger.getLogger("").getHandlers()).contains(testHandler));
+
+        subject.tearDown();
+        assertTrue(asList(Logger.getLogger("").getHandlers()).contains(testHandler));
+    }
+
+    @Test
+    public void testMuteKeepsHandlers() {
+        Handler streamHandler = new StreamHandler(new ByteArrayOutputStream(), new SimpleFormatter());
+        Logger.getLogger("").addHandler(streamHandler);
+        try {
+            LogMuter subject = LogMuter.setupLogMuter();
+            assertTrue(asList(Logger.getLogger("").getHandlers()).contains(streamHandler));
+            assertFalse(streamHandler.isLoggable(new LogRecord(java.util.logging.Level.SEVERE, "log statement")));
+
+            subject.tearDown();
+            assertTrue(streamHandler.isLoggable(new LogRecord(java.util.logging.Level.SEVERE, "log statement")));
+        } finally {
+            Logger.getLogger("").removeHandler(streamHandler);
+        }
+    }
+
+    private class HandlerForTest extends Handler {
+        @Override
+        public void close() {
+            ; // nothing to close
+        }
+
+        @Override
+        public void flush() {
+            ; // nothing to flush
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            incrementLogCounter();
+        }
+    }
+}
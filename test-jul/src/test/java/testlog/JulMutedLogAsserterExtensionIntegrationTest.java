@@ -0,0 +1,4 @@
+package testlog;
+
+public class JulMutedLogAsserterExtensionIntegrationTest extends AbstractMutedLogAsserterExtensionIntegrationTest {
+}
@@ -0,0 +1,4 @@
+package testlog;
+
+public class JulMutedLogAsserterExtensionTest extends AbstractMutedLogAsserterExtensionTest {
+}
@@ -0,0 +1,4 @@
+package testlog;
+
+public class JulMutedLogAsserterRuleTest extends AbstractMutedLogAsserterRuleTest {
+}
@@ -1,6 +1,8 @@
 package testlog;
 
 import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.spi.Filter;
 import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.varia.NullAppender;
 import org.junit.After;
@@ -9,8 +11,12 @@ import org.junit.Test;
 import testlog.impl.Logging;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class Log4jLogMuterTest extends AbstractLogMuterTest {
+    private Appender filteredAppender = new FilteredAppenderForTest();
+
     private Appender testAppender = new AppenderForTest();
 
     @Before
@@ -21,6 +27,7 @@ public class Log4jLogMuterTest extends AbstractLogMuterTest {
     @After
     public void tearDown() {
         org.apache.log4j.Logger.getRootLogger().removeAppender(testAppender);
+        org.apache.log4j.Logger.getRootLogger().removeAppender(filteredAppender);
     }
 
     @Test
@@ -31,10 +38,73 @@ public class Log4jLogMuterTest extends AbstractLogMuterTest {
         }
     }
 
+    @Test
+    public void testMuteDetachesAppendersThatBypassFilters() {
+        LogMuter subject = LogMuter.setupLogMuter();
+        assertFalse(org.apache.log4j.Logger.getRootLogger().isAttached(testAppender));
+
+        subject.tearDown();
+        assertTrue(org.apache.log4j.Logger.getRootLogger().isAttached(testAppender));
+    }
+
+    @Test
+    public void testMuteKeepsAppenders() {
+        useFilteredAppender();
+        LogMuter subject = LogMuter.setupLogMuter();
+        assertTrue(org.apache.log4j.Logger.getRootLogger().isAttached(filteredAppender));
+
+        subject.tearDown();
+        assertTrue(org.apache.log4j.Logger.getRootLogger().isAttached(filteredAppender));
+    }
+
+    @Test
+    public void testMuteWithAcceptingFilter() {
+        useFilteredAppender();
+        Filter acceptingFilter = new AcceptingFilter();
+        filteredAppender.addFilter(acceptingFilter);
+        assertLogIsNotMuted();
+
+        try (LogMuter ignored = LogMuter.setupLogMuter()) {
+            assertLogIsMuted();
+            assertEquals(acceptingFilter, filteredAppender.getFilter().getNext());
+        }
+
+        assertLogIsNotMuted();
+    }
+
+    private void useFilteredAppender() {
+        org.apache.log4j.Logger.getRootLogger().removeAppender(testAppender);
+        org.apache.log4j.Logger.getRootLogger().addAppender(filteredAppender);
+    }
+
+    private static class AcceptingFilter extends Filter {
+        @Override
+        public int decide(LoggingEvent event) {
+            return ACCEPT;
+        }
+    }
+
     private class AppenderForTest extends NullAppender {
         @Override
         public void doAppend(LoggingEvent event) {
             incrementLogCounter();
         }
     }
+
+    private class FilteredAppenderForTest extends AppenderSkeleton {
+        @Override
+        public void close() {
+            ; // nothing to close
+        }
+
+        @Override
+        public boolean requiresLayout() {
+            return false;
+        }
+
+        @Override
+        protected void append(LoggingEvent event) {
+            incrementLogCounter();
+        }
+    }
 }
@@ -0,0 +1,243 @@
+package testlog;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.status.StatusConsoleListener;
+import org.apache.logging.log4j.status.StatusData;
+import org.apache.logging.log4j.status.StatusListener;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.hamcrest.CustomTypeSafeMatcher;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.slf4j.event.Level;
+import testlog.impl.Logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static testlog.matcher.LogItemMatchers.level;
+import static testlog.matcher.LogItemMatchers.marker;
+
+public class Log4j2LogAsserterTest extends AbstractLogAsserterTest {
+    private static final Logger logger = LoggerFactory.getLogger(Log4j2LogAsserterTest.class);
+
+    @Test
+    public void testDelegate() {
+        try (LogAsserter subject = LogAsserter.setUpLogAsserter(Level.WARN)) {
+            Logging actual = subject.getDelegate();
+            assertEquals("Log4j2Logging", actual.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void testFatal() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(Level.ERROR);
+        LogManager.getLogger(getClass()).fatal("fatal statement");
+
+        assertEquals("fatal statement", subject.queryHistory().level(Level.ERROR).list().get(0).getMessage());
+        subject.tearDown();
+    }
+
+    @Test
+    public void testFatalUnexpected() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        LogManager.getLogger(getClass()).fatal("fatal statement");
+
+        try {
+            subject.tearDown();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertThat(exception.getMessage(), startsWith(
+                    "Unexpected ERROR log during test execution with the following message: fatal statement"));
+        }
+    }
+
+    @Test
+    public void testMdcOfReusedEvent() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        List<Map<String, String>> mdcsWhileLogging = new ArrayList<>();
+        // the event of a log statement is only reused once it is done, so look at the first one during the second
+        subject.expect(level(Level.WARN), new CustomTypeSafeMatcher<LogItem>("first MDC looked at") {
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                mdcsWhileLogging.add(subject.queryHistory().list().get(0).getMdc());
+                return true;
+            }
+        });
+        logger.warn("warn statement 1");
+        MDC.put("order", "42");
+        try {
+            logger.warn("warn statement 2");
+        } finally {
+            MDC.remove("order");
+        }
+
+        assertEquals(asList(emptyMap()), mdcsWhileLogging);
+        assertEquals(singletonMap("order", "42"), subject.queryHistory().list().get(1).getMdc());
+        subject.tearDown();
+    }
+
+    @Test
+    public void testMarkers() {
+        Marker billing = MarkerFactory.getDetachedMarker("billing");
+        billing.add(MarkerFactory.getMarker("audit"));
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(allOf(marker("billing"), marker("audit")));
+        LoggerFactory.getLogger(getClass()).warn(billing, "warn statement");
+
+        assertEquals(asList("billing", "audit"), subject.queryHistory().list().get(0).getMarkers());
+        subject.tearDown();
+    }
+
+    @Test
+    public void testReusableMessages() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(Level.WARN);
+        logger.warn("warn statement {}", 1);
+        logger.error("error statement {}", 2);
+
+        try {
+            subject.tearDown();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertEquals("Unexpected ERROR log during test execution with the following message: "
+                    + "error statement 2\n"
+                    + "History:\n"
+                    + " (1) WARN: warn statement 1\n"
+                    + " (2) ERROR: error statement 2\n"
+                    + " (2) -- this is the one that caused the log asserter to fail --\n"
+                    + "(now follows once more the stacktrace for the log item that caused this)",
+                    exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReusableObjectMessages() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.INFO);
+        subject.expect(Level.INFO);
+        subject.expect(Level.INFO);
+        org.apache.logging.log4j.Logger log4jLogger = LogManager.getLogger(getClass());
+        log4jLogger.info(asList("info", "statement"));
+        log4jLogger.info((Object) "info statement {}");
+        log4jLogger.info("info statement {}", 3);
+
+        try {
+            subject.tearDown();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertEquals("Unexpected INFO log during test execution with the following message: "
+                    + "info statement 3\n"
+                    + "History:\n"
+                    + " (1) INFO: [info, statement]\n"
+                    + " (2) INFO: info statement {}\n"
+                    + " (3) INFO: info statement 3\n"
+                    + " (3) -- this is the one that caused the log asserter to fail --\n"
+                    + "(now follows once more the stacktrace for the log item that caused this)",
+                    exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testNoRecursiveAppending() {
+        List<String> statusMessages = new CopyOnWriteArrayList<>();
+        StatusListener statusListener = new StatusConsoleListener(org.apache.logging.log4j.Level.ERROR) {
+            @Override
+            public void log(StatusData data) {
+                statusMessages.add(data.getMessage().getFormattedMessage());
+            }
+        };
+        StatusLogger.getLogger().registerListener(statusListener);
+        try {
+            LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+            subject.expect(Level.WARN);
+            logger.warn("warn statement");
+            subject.tearDown();
+        } finally {
+            StatusLogger.getLogger().removeListener(statusListener);
+        }
+
+        assertEquals(emptyList(), statusMessages);
+    }
+
+    private static LoggerConfig getRootLoggerConfig() {
+        LoggerContext loggerContext = (LoggerContext) LogManager.getContext(false);
+        return loggerContext.getConfiguration().getRootLogger();
+    }
+
+    @Override
+    protected LogAsserter callLogAsserterConstructor(Level level) {
+        return new LogAsserter(level);
+    }
+
+    @Override
+    protected LogAsserter callSubjectSetUpLogAsserter(Level level) {
+        return LogAsserter.setUpLogAsserter(level);
+    }
+
+    @Override
+    protected CaptureInfoAppender createAppender() {
+        return new Log4j2CaptureInfoAppender();
+    }
+
+    @Override
+    protected boolean isMuted() {
+        return false;
+    }
+
+    @Override
+    protected void enableTraceLogging() {
+        Configurator.setRootLevel(org.apache.logging.log4j.Level.TRACE);
+    }
+
+    private static class Log4j2CaptureInfoAppender extends AbstractAppender implements CaptureInfoAppender {
+        private List<String> messages = new ArrayList<>();
+
+        Log4j2CaptureInfoAppender() {
+            super("capture-info", null, null, true, Property.EMPTY_ARRAY);
+            start();
+        }
+
+        @Override
+        public void append(LogEvent event) {
+            if (event.getLevel().equals(org.apache.logging.log4j.Level.INFO)) {
+                messages.add(event.getMessage().getFormattedMessage());
+            }
+        }
+
+        @Override
+        public void assertMessages(String... expected) {
+            assertEquals(asList(expected), messages);
+        }
+
+        @Override
+        public void register() {
+            getRootLoggerConfig().addAppender(this, null, null);
+        }
+
+        @Override
+        public void unregister() {
+            getRootLoggerConfig().removeAppender(getName());
+        }
+    }
+}
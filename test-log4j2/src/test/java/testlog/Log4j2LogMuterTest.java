@@ -0,0 +1,82 @@
+package testlog;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import testlog.impl.Logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class Log4j2LogMuterTest extends AbstractLogMuterTest {
+    private Appender testAppender = new AppenderForTest();
+
+    @Before
+    public void setUp() {
+        getRootLoggerConfig().addAppender(testAppender, null, null);
+    }
+
+    @After
+    public void tearDown() {
+        getRootLoggerConfig().removeAppender(testAppender.getName());
+    }
+
+    @Test
+    public void testDelegate() {
+        try (LogMuter subject = LogMuter.setupLogMuter()) {
+            Logging actual = subject.getDelegate();
+            assertEquals("Log4j2Logging", actual.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void testMuteLeavesAppenderReferencesAlone() {
+        Filter acceptingFilter = new AcceptingFilter();
+        acceptingFilter.start();
+        getRootLoggerConfig().removeAppender(testAppender.getName());
+        getRootLoggerConfig().addAppender(testAppender, null, acceptingFilter);
+        assertLogIsNotMuted();
+
+        try (LogMuter ignored = LogMuter.setupLogMuter()) {
+            assertLogIsMuted();
+            assertSame(testAppender, getRootLoggerConfig().getAppenders().get(testAppender.getName()));
+            assertTrue(acceptingFilter.isStarted());
+        }
+
+        assertLogIsNotMuted();
+        assertTrue(acceptingFilter.isStarted());
+    }
+
+    private LoggerConfig getRootLoggerConfig() {
+        LoggerContext loggerContext = (LoggerContext) LogManager.getContext(false);
+        return loggerContext.getConfiguration().getRootLogger();
+    }
+
+    private static class AcceptingFilter extends AbstractFilter {
+        AcceptingFilter() {
+            super(Result.ACCEPT, Result.ACCEPT);
+        }
+    }
+
+    private class AppenderForTest extends AbstractAppender {
+        AppenderForTest() {
+            super("test", null, null, true, Property.EMPTY_ARRAY);
+            start();
+        }
+
+        @Override
+        public void append(LogEvent event) {
+            incrementLogCounter();
+        }
+    }
+}
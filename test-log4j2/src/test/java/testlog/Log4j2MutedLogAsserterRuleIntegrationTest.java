@@ -0,0 +1,4 @@
+package testlog;
+
+public class Log4j2MutedLogAsserterRuleIntegrationTest extends AbstractMutedLogAsserterRuleIntegrationTest {
+}
@@ -4,6 +4,8 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.AppenderBase;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
 import org.slf4j.event.Level;
 import testlog.impl.Logging;
 
@@ -11,7 +13,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.allOf;
 import static org.junit.Assert.assertEquals;
+import static testlog.matcher.LogItemMatchers.marker;
 
 public class LogbackLogAsserterTest extends AbstractLogAsserterTest {
     @Test
@@ -22,6 +26,18 @@ public class LogbackLogAsserterTest extends AbstractLogAsserterTest {
         }
     }
 
+    @Test
+    public void testMarkers() {
+        Marker billing = MarkerFactory.getDetachedMarker("billing");
+        billing.add(MarkerFactory.getMarker("audit"));
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(allOf(marker("billing"), marker("audit")));
+        LoggerFactory.getLogger(getClass()).warn(billing, "warn statement");
+
+        assertEquals(asList("billing", "audit"), subject.queryHistory().list().get(0).getMarkers());
+        subject.tearDown();
+    }
+
     private static ch.qos.logback.classic.Logger getRootLogger() {
         return (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
     }
@@ -3,13 +3,20 @@ package testlog;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
 import testlog.impl.Logging;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class LogbackLogMuterTest extends AbstractLogMuterTest {
     private Appender<ILoggingEvent> testAppender = new AppenderForTest();
@@ -32,10 +39,62 @@ public class LogbackLogMuterTest extends AbstractLogMuterTest {
         }
     }
 
+    @Test
+    public void testMuteKeepsAppenders() {
+        LogMuter subject = LogMuter.setupLogMuter();
+        assertTrue(getRootLogger().isAttached(testAppender));
+
+        subject.tearDown();
+        assertTrue(getRootLogger().isAttached(testAppender));
+        assertTrue(testAppender.isStarted());
+    }
+
+    @Test
+    public void testMuteWithAcceptingFilter() {
+        Filter<ILoggingEvent> acceptingFilter = new AcceptingFilter();
+        testAppender.addFilter(acceptingFilter);
+        assertLogIsNotMuted();
+
+        try (LogMuter ignored = LogMuter.setupLogMuter()) {
+            assertLogIsMuted();
+            List<Filter<ILoggingEvent>> filters = testAppender.getCopyOfAttachedFiltersList();
+            assertEquals(2, filters.size());
+            assertEquals(acceptingFilter, filters.get(1));
+        }
+
+        assertLogIsNotMuted();
+    }
+
+    @Test
+    public void testMuteDetachesUnsynchronizedAppenderWithAcceptingFilter() {
+        Appender<ILoggingEvent> unsynchronizedAppender = new UnsynchronizedAppenderForTest();
+        unsynchronizedAppender.addFilter(new AcceptingFilter());
+        getRootLogger().detachAppender(testAppender);
+        getRootLogger().addAppender(unsynchronizedAppender);
+        try {
+            try (LogMuter ignored = LogMuter.setupLogMuter()) {
+                assertLogIsMuted();
+                assertFalse(getRootLogger().isAttached(unsynchronizedAppender));
+            }
+
+            assertLogIsNotMuted();
+            assertTrue(getRootLogger().isAttached(unsynchronizedAppender));
+        } finally {
+            getRootLogger().detachAppender(unsynchronizedAppender);
+        }
+    }
+
     private ch.qos.logback.classic.Logger getRootLogger() {
         return (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
     }
 
+    private static class AcceptingFilter extends Filter<ILoggingEvent> {
+        @Override
+        public FilterReply decide(ILoggingEvent event) {
+            return FilterReply.ACCEPT;
+        }
+    }
+
     private class AppenderForTest extends AppenderBase<ILoggingEvent> {
         AppenderForTest() {
             started = true;
@@ -46,4 +105,15 @@ public class LogbackLogMuterTest extends AbstractLogMuterTest {
             incrementLogCounter();
         }
     }
+
+    private class UnsynchronizedAppenderForTest extends UnsynchronizedAppenderBase<ILoggingEvent> {
+        UnsynchronizedAppenderForTest() {
+            started = true;
+        }
+
+        @Override
+        protected void append(ILoggingEvent eventObject) {
+            incrementLogCounter();
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package testlog;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LogbackTurboFilterLogAsserterTest extends LogbackLogAsserterTest {
+    private static final String CAPTURE_PROPERTY = "testlog.logback.capture";
+
+    @Before
+    public void setUpTurboFilter() {
+        System.setProperty(CAPTURE_PROPERTY, "turboFilter");
+    }
+
+    @After
+    public void tearDownTurboFilter() {
+        System.clearProperty(CAPTURE_PROPERTY);
+    }
+
+    @Test
+    public void testUnexpectedErrorOfNonAdditiveLogger() {
+        Logger nonAdditiveLogger = LoggerFactory.getLogger("testlog.nonadditive");
+        ((ch.qos.logback.classic.Logger) nonAdditiveLogger).setAdditive(false);
+
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        nonAdditiveLogger.error("error statement {}", 1);
+        try {
+            subject.tearDown();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertEquals("Unexpected ERROR log during test execution with the following message: "
+                    + "error statement 1\n"
+                    + "History:\n"
+                    + " (1) ERROR: error statement 1\n"
+                    + " (1) -- this is the one that caused the log asserter to fail --\n"
+                    + "(now follows once more the stacktrace for the log item that caused this)",
+                    exception.getMessage());
+        }
+    }
+}
@@ -5,20 +5,44 @@ import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.slf4j.event.Level;
+import testlog.history.BoundedHistory;
+import testlog.impl.CaptureMetrics;
+import testlog.strategy.LevelCountsStrategy;
+import testlog.strategy.RateStrategy;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static java.lang.Thread.sleep;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static testlog.matcher.LogItemMatchers.level;
+import static testlog.matcher.LogItemMatchers.mdc;
+import static testlog.matcher.LogItemMatchers.threadName;
 
 public abstract class AbstractLogAsserterTest {
     private static final Logger logger = LoggerFactory.getLogger(AbstractLogAsserterTest.class);
@@ -28,6 +52,137 @@ public abstract class AbstractLogAsserterTest {
         enableTraceLogging();
     }
 
+    @Test
+    public void testArrivalLatencies() throws InterruptedException {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        long suiteCount = LogAsserter.getSuiteArrivalLatencies().getCount();
+        subject.expect(Level.WARN);
+        Thread logThread = new Thread(() -> {
+            try {
+                sleep(50);
+            } catch (InterruptedException exception) {
+                throw new RuntimeException(exception);
+            }
+            logger.warn("warn statement");
+        });
+        logThread.start();
+        logThread.join();
+        subject.tearDown();
+
+        assertEquals(1, subject.getArrivalLatencies().getCount());
+        assertThat(subject.getArrivalLatencies().getMaximum(), greaterThanOrEqualTo(Duration.ofMillis(50)));
+        assertThat(LogAsserter.getSuiteArrivalLatencies().getCount(), greaterThanOrEqualTo(suiteCount + 1));
+    }
+
+    @Test
+    public void testArrivalLatenciesOfToleratedLogs() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(new RateStrategy(2, Duration.ofMinutes(1), Level.WARN));
+        logger.warn("warn statement");
+        logger.warn("warn statement");
+        subject.tearDown();
+
+        assertEquals(0, subject.getArrivalLatencies().getCount());
+    }
+
+    @Test
+    public void testAwaitLog() throws Exception {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        CompletableFuture<LogItem> future = subject.awaitLog(Level.WARN, Duration.ofSeconds(5));
+        assertFalse(future.isDone());
+
+        Thread logThread = new Thread(() -> logger.warn("warn statement"));
+        logThread.start();
+
+        LogItem actual = future.get(5, TimeUnit.SECONDS);
+        assertEquals("warn statement", actual.getMessage());
+        logThread.join();
+        subject.tearDown();
+    }
+
+    @Test
+    public void testAwaitLogBelowMinimumLevel() throws Exception {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        CompletableFuture<LogItem> future = subject.awaitLog(
+                hasProperty("message", is(equalTo("second info statement"))), Duration.ofSeconds(5));
+        logger.info("first info statement");
+        assertFalse(future.isDone());
+        logger.info("second info statement");
+
+        assertEquals(Level.INFO, future.get().getLevel());
+        subject.tearDown();
+    }
+
+    @Test
+    public void testAwaitLogCancelledByTearDown() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        CompletableFuture<LogItem> future = subject.awaitLog(Level.ERROR, Duration.ofSeconds(5));
+
+        subject.tearDown();
+
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testAwaitLogTimeout() throws InterruptedException {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        CompletableFuture<LogItem> future = subject.awaitLog(Level.ERROR, Duration.ofMillis(100));
+        try {
+            future.get();
+            fail("expected an exception for the log event that did not occur");
+        } catch (ExecutionException exception) {
+            assertEquals(TimeoutException.class, exception.getCause().getClass());
+            assertEquals("no log event matching log item at level <ERROR> occurred within 100ms",
+                    exception.getCause().getMessage());
+        }
+        subject.tearDown();
+    }
+
+    @Test
+    public void testBoundedHistory() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.setHistory(new BoundedHistory(1));
+        subject.expect(Level.WARN, Level.WARN);
+        logger.warn("warn statement 1");
+        logger.warn("warn statement 2");
+        logger.error("error statement");
+
+        validateException(subject, "Unexpected ERROR log during test execution with the following message: "
+                + "error statement\n"
+                + "History:\n"
+                + " (...) 1 log items dropped from history\n"
+                + " (2) WARN: warn statement 2\n"
+                + " (3) ERROR: error statement\n"
+                + " (3) -- this is the one that caused the log asserter to fail --\n"
+                + "(now follows once more the stacktrace for the log item that caused this)");
+    }
+
+    @Test
+    public void testCaptureMetrics() {
+        CaptureMetrics metrics = CaptureMetrics.getInstance();
+        CaptureMetrics.register();
+        metrics.reset();
+        try {
+            LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+            subject.expect(Level.WARN);
+            logger.debug("debug statement");
+            logger.warn("warn statement");
+            assertThat(metrics.getHistorySize(), greaterThanOrEqualTo(1L));
+            subject.tearDown();
+
+            assertEquals(Long.valueOf(1), metrics.getSeenCounts().get("WARN"));
+            assertEquals(Long.valueOf(1), metrics.getCapturedCounts().get("WARN"));
+            assertEquals(Long.valueOf(1), metrics.getMatchedCounts().get("WARN"));
+            assertEquals(Long.valueOf(0), metrics.getRejectedCounts().get("WARN"));
+            assertEquals(Long.valueOf(subject instanceof MutedLogAsserter ? 1 : 0),
+                    metrics.getMutedCounts().get("DEBUG"));
+            assertThat(metrics.getLogNanos(), greaterThan(0L));
+        } finally {
+            CaptureMetrics.unregister();
+            metrics.reset();
+        }
+    }
+
     @Test
     public void testCloseWithUnexpectedLog() {
         try {
@@ -159,6 +314,20 @@ public abstract class AbstractLogAsserterTest {
         }
     }
 
+    @Test
+    public void testExpectedErrorNotOccurredWithTimeout() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.setTimeout(Duration.ofMillis(250));
+        subject.expect(Level.ERROR);
+        try {
+            subject.tearDown();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertEquals(
+                    "1 expected log entries did not occur after waiting 250ms: ERROR", exception.getMessage());
+        }
+    }
+
     @Test
     public void testExpectedErrorsNotOccurred() {
         LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
@@ -175,6 +344,50 @@ public abstract class AbstractLogAsserterTest {
         }
     }
 
+    @Test
+    public void testExpectedLevelCountsInAnyOrder() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(new LevelCountsStrategy(Level.ERROR, Level.ERROR).withCount(2, Level.WARN));
+        logger.warn("warn statement");
+        logger.error("error statement");
+        logger.warn("warn statement");
+        logger.error("error statement");
+        subject.tearDown();
+    }
+
+    @Test
+    public void testExpectedLevelCountsTooMany() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(new LevelCountsStrategy(Level.ERROR, Level.WARN));
+        logger.warn("warn statement");
+        logger.warn("warn statement");
+
+        validateException(subject, "Unexpected WARN log during test execution with the following message: "
+                + "warn statement\n"
+                + "History:\n"
+                + " (1) WARN: warn statement\n"
+                + " (2) WARN: warn statement\n"
+                + " (2) -- this is the one that caused the log asserter to fail --\n"
+                + "(now follows once more the stacktrace for the log item that caused this)");
+    }
+
+    @Test
+    public void testExpectedRateExceeded() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(new RateStrategy(1, Duration.ofMinutes(1), Level.WARN));
+        logger.warn("warn statement");
+        logger.warn("warn statement");
+
+        validateException(subject, "Unexpected WARN log during test execution with the following message: "
+                + "warn statement\n"
+                + "(exceeds at most 1 WARN per 60000ms, peaked at 2 WARN per 60000ms)\n"
+                + "History:\n"
+                + " (1) WARN: warn statement\n"
+                + " (2) WARN: warn statement\n"
+                + " (2) -- this is the one that caused the log asserter to fail --\n"
+                + "(now follows once more the stacktrace for the log item that caused this)");
+    }
+
     @Test
     public void testExpectedTwoLogs() {
         LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
@@ -212,6 +425,27 @@ public abstract class AbstractLogAsserterTest {
         subject.tearDown();
     }
 
+    @Test
+    public void testLogContext() {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(allOf(mdc("request", "42"), threadName(Thread.currentThread().getName())), level(Level.WARN));
+        long before = System.currentTimeMillis();
+        MDC.put("request", "42");
+        try {
+            logger.warn("warn statement");
+        } finally {
+            MDC.remove("request");
+        }
+        logger.warn("warn statement");
+
+        List<LogItem> actual = subject.queryHistory().list();
+        assertEquals("42", actual.get(0).getMdc().get("request"));
+        assertEquals(Thread.currentThread().getName(), actual.get(0).getThreadName());
+        assertThat(actual.get(0).getTimestamp(), greaterThanOrEqualTo(before));
+        assertNull(actual.get(1).getMdc().get("request"));
+        subject.tearDown();
+    }
+
     @Test
     public void testLogInfoForExpectedLog() {
         CaptureInfoAppender appender = registerAppender();
@@ -258,6 +492,103 @@ public abstract class AbstractLogAsserterTest {
         subject.tearDown();
     }
 
+    @Test
+    public void testQueryHistory() {
+        Logger billingLogger = LoggerFactory.getLogger("testlog.billing");
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.expect(Level.WARN, Level.WARN, Level.ERROR);
+        logger.warn("warn statement");
+        billingLogger.warn("billing warn statement");
+        billingLogger.error("billing error statement");
+
+        assertEquals(3, subject.queryHistory().count());
+        assertEquals(2, subject.queryHistory().level(Level.WARN).count());
+        assertEquals(2, subject.queryHistory().logger("testlog.billing").count());
+        assertEquals(3, subject.queryHistory().logger("testlog").count());
+        assertEquals(1, subject.queryHistory().level(Level.WARN).logger("testlog.billing").count());
+        assertEquals("billing error statement",
+                subject.queryHistory().logger("testlog.billing").messageContains("error").list().get(0).getMessage());
+        assertEquals("testlog.billing", subject.queryHistory().level(Level.ERROR).list().get(0).getLoggerName());
+
+        subject.tearDown();
+        assertEquals(0, subject.queryHistory().count());
+    }
+
+    @Test
+    public void testSetTimeoutNegative() {
+        try (LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN)) {
+            try {
+                subject.setTimeout(Duration.ofMillis(-1));
+                fail("expected an exception for the negative time out");
+            } catch (IllegalArgumentException exception) {
+                assertEquals("Time out should not be negative, was PT-0.001S", exception.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testStripedCaptureMode() throws InterruptedException {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.setCaptureMode(CaptureMode.STRIPED);
+        subject.expect(4);
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> logger.warn("warn statement"));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        subject.tearDown();
+    }
+
+    @Test
+    public void testStripedCaptureModeComingLate() throws InterruptedException {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.setCaptureMode(CaptureMode.STRIPED);
+        subject.expect(Level.ERROR);
+
+        final Throwable[] caught = new Throwable[1];
+        Thread testThread = new Thread(() -> {
+            try {
+                subject.tearDown();
+            } catch (Throwable throwable) {
+                caught[0] = throwable;
+            }
+        });
+        testThread.start();
+
+        sleep(750);
+        Thread logThread = new Thread(() -> logger.error("error statement"));
+        logThread.start();
+
+        testThread.join();
+        logThread.join();
+
+        assertNull(caught[0]);
+    }
+
+    @Test
+    public void testStripedCaptureModeUnexpected() throws InterruptedException {
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.setCaptureMode(CaptureMode.STRIPED);
+        subject.expect(Level.WARN);
+        logger.warn("warn statement");
+        Thread logThread = new Thread(() -> logger.error("error statement"));
+        logThread.start();
+        logThread.join();
+
+        validateException(subject, "Unexpected ERROR log during test execution with the following message: "
+                + "error statement\n"
+                + "History:\n"
+                + " (1) WARN: warn statement\n"
+                + " (2) ERROR: error statement\n"
+                + " (2) -- this is the one that caused the log asserter to fail --\n"
+                + "(now follows once more the stacktrace for the log item that caused this)");
+    }
+
     @Test
     public void testTearDownInterrupted() throws InterruptedException {
         LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
@@ -283,6 +614,56 @@ public abstract class AbstractLogAsserterTest {
         assertEquals("waiting for expected log entries got interrupted: ERROR", caught[0].getMessage());
     }
 
+    @Test
+    public void testTestScoped() throws InterruptedException {
+        Thread otherTestThread = new Thread(() -> logger.error("error statement of another test"));
+        LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+        subject.setTestScoped(true);
+        subject.expect(Level.ERROR);
+        Thread childThread = new Thread(() -> logger.error("error statement of a child thread"));
+
+        otherTestThread.start();
+        otherTestThread.join();
+        childThread.start();
+        childThread.join();
+
+        subject.tearDown();
+        assertNull(CaptureScope.getCurrent());
+    }
+
+    @Test
+    public void testTestScopedUponConstruction() throws InterruptedException {
+        Thread otherTestThread = new Thread(() -> logger.error("error statement of another test"));
+        LogAsserter subject = LogAsserter.setUpLogAsserter(Level.WARN, true);
+        assertSame(subject.getScope(), CaptureScope.getCurrent());
+        subject.expect(Level.ERROR);
+
+        otherTestThread.start();
+        otherTestThread.join();
+        logger.error("error statement of the test");
+
+        subject.tearDown();
+        assertNull(CaptureScope.getCurrent());
+    }
+
+    @Test
+    public void testTestScopedWrap() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> { }).get(); // starts the thread outside of the scope
+            LogAsserter subject = callSubjectSetUpLogAsserter(Level.WARN);
+            subject.setTestScoped(true);
+            subject.expect(Level.ERROR);
+
+            executor.submit(() -> logger.error("error statement outside of the scope")).get();
+            executor.submit(CaptureScope.wrap(() -> logger.error("error statement in the scope"))).get();
+
+            subject.tearDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testUnexpectedDebug() {
         LogAsserter subject = callSubjectSetUpLogAsserter(Level.DEBUG);
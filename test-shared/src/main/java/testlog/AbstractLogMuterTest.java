@@ -3,8 +3,13 @@ package testlog;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public abstract class AbstractLogMuterTest {
     private static final Logger logger = LoggerFactory.getLogger(AbstractLogMuterTest.class);
@@ -35,6 +40,21 @@ public abstract class AbstractLogMuterTest {
         subject.tearDown();
     }
 
+    @Test
+    public void testOverlappingMuters() {
+        assertLogIsNotMuted();
+
+        LogMuter first = LogMuter.setupLogMuter();
+        LogMuter second = LogMuter.setupLogMuter();
+        assertLogIsMuted();
+
+        first.tearDown();
+        assertLogIsMuted();
+
+        second.tearDown();
+        assertLogIsNotMuted();
+    }
+
     @Test
     public void testRedundantMute() {
         assertLogIsNotMuted();
@@ -62,6 +82,116 @@ public abstract class AbstractLogMuterTest {
         subject.tearDown();
     }
 
+    @Test
+    public void testReplayOnFailure() {
+        MutedLogAsserter subject = MutedLogAsserter.setupMutedLogAsserter(Level.WARN);
+        subject.setTimeout(Duration.ZERO);
+        subject.setReplayCapacity(10_000);
+        subject.expect(Level.WARN);
+        assertLogIsMuted();
+
+        int currentCount = counter;
+        try {
+            subject.tearDown();
+            fail("expected an exception for the expected log that did not occur");
+        } catch (AssertionError exception) {
+            assertEquals(currentCount + 1, counter);
+        }
+        assertLogIsNotMuted();
+    }
+
+    @Test
+    public void testReplayOutput() {
+        LogMuter subject = new LogMuter();
+        subject.setReplayCapacity(10_000);
+        subject.disableOutput();
+        assertLogIsMuted();
+        assertLogIsMuted();
+
+        int currentCount = counter;
+        subject.replayOutput();
+        assertEquals(currentCount + 2, counter);
+
+        subject.replayOutput();
+        assertEquals(currentCount + 2, counter);
+        assertLogIsMuted();
+
+        subject.tearDown();
+    }
+
+    @Test
+    public void testReplayOutputDropsOldest() {
+        LogMuter subject = new LogMuter();
+        subject.setReplayCapacity(200);
+        subject.disableOutput();
+        assertLogIsMuted();
+        assertLogIsMuted();
+
+        int currentCount = counter;
+        subject.replayOutput();
+        assertEquals(currentCount + 1, counter);
+
+        subject.tearDown();
+    }
+
+    @Test
+    public void testReplayOutputIncludesArguments() {
+        LogMuter subject = new LogMuter();
+        subject.setReplayCapacity(400);
+        subject.disableOutput();
+        String argument = String.join("", Collections.nCopies(60, "x"));
+        logger.info("log {}", argument);
+        logger.info("log {}", argument);
+
+        int currentCount = counter;
+        subject.replayOutput();
+        assertEquals(currentCount + 1, counter);
+
+        subject.tearDown();
+    }
+
+    @Test
+    public void testReplayOutputOfScope() throws InterruptedException {
+        Thread outsider = new Thread(this::assertLogIsMuted);
+        LogMuter subject = new LogMuter();
+        subject.setReplayCapacity(10_000);
+        try (CaptureScope scope = CaptureScope.open()) {
+            subject.setReplayScope(scope);
+            subject.disableOutput();
+            assertLogIsMuted();
+            outsider.start();
+            outsider.join();
+
+            int currentCount = counter;
+            subject.replayOutput();
+            assertEquals(currentCount + 1, counter);
+        } finally {
+            subject.tearDown();
+        }
+    }
+
+    @Test
+    public void testReplayOutputWithoutCapacity() {
+        LogMuter subject = LogMuter.setupLogMuter();
+        assertLogIsMuted();
+
+        int currentCount = counter;
+        subject.replayOutput();
+        assertEquals(currentCount, counter);
+
+        subject.tearDown();
+    }
+
+    @Test
+    public void testSetReplayCapacityNegative() {
+        try (LogMuter subject = new LogMuter()) {
+            subject.setReplayCapacity(-1);
+            fail("expected an exception for the negative capacity");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Replay capacity should not be negative, was -1", exception.getMessage());
+        }
+    }
+
     @Test
     public void testSetupLogMuter() {
         assertLogIsNotMuted();
@@ -72,6 +202,21 @@ public abstract class AbstractLogMuterTest {
         subject.tearDown();
     }
 
+    @Test
+    public void testTearDownDiscardsOutput() {
+        LogMuter subject = new LogMuter();
+        subject.setReplayCapacity(10_000);
+        subject.disableOutput();
+        assertLogIsMuted();
+
+        int currentCount = counter;
+        subject.tearDown();
+        assertEquals(currentCount, counter);
+
+        subject.replayOutput();
+        assertEquals(currentCount, counter);
+    }
+
     @Test
     public void testTearDown() {
         assertLogIsNotMuted();
@@ -95,13 +240,13 @@ public abstract class AbstractLogMuterTest {
         subject.tearDown();
     }
 
-    private void assertLogIsMuted() {
+    protected void assertLogIsMuted() {
         int currentCount = counter;
         logger.info("log statement");
         assertEquals(currentCount, counter);
     }
 
-    private void assertLogIsNotMuted() {
+    protected void assertLogIsNotMuted() {
         int currentCount = counter;
         logger.info("log statement");
         assertEquals(currentCount + 1, counter);
@@ -5,6 +5,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -29,6 +40,22 @@ public abstract class AbstractMutedLogAsserterExtensionTest {
         subject.afterEach(null);
     }
 
+    @Test
+    public void testAssertAndResetNoExpectedLogWithTimeout() throws Throwable {
+        MutedLogAsserterExtension subject = new MutedLogAsserterExtension(Level.WARN, Duration.ofMillis(250));
+        subject.beforeEach(null);
+        subject.expect(Level.WARN);
+
+        try {
+            subject.assertAndReset();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertEquals("1 expected log entries did not occur after waiting 250ms: WARN", exception.getMessage());
+        }
+
+        subject.afterEach(null);
+    }
+
     @Test
     public void testAssertAndResetExpectedLog() throws Throwable {
         MutedLogAsserterRule subject = new MutedLogAsserterRule();
@@ -64,6 +91,53 @@ public abstract class AbstractMutedLogAsserterExtensionTest {
         subject.afterEach(null);
     }
 
+    @Test
+    public void testTestScoped() throws Throwable {
+        Thread otherTestThread = new Thread(() -> logger.error("error of another test"));
+        MutedLogAsserterExtension subject = new MutedLogAsserterExtension();
+        subject.setTestScoped(true);
+        subject.beforeEach(null);
+        assertNotNull(subject.getMutedLogAsserter().getScope());
+
+        otherTestThread.start();
+        otherTestThread.join();
+
+        subject.afterEach(null);
+    }
+
+    @Test
+    public void testTestScopedConcurrentTests() throws Throwable {
+        MutedLogAsserterExtension subject = new MutedLogAsserterExtension();
+        subject.setTestScoped(true);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> testThreads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String message = "expected log of test " + i;
+            testThreads.add(new Thread(() -> {
+                try {
+                    subject.beforeEach(null);
+                    subject.expect(hasProperty("message", is(equalTo(message))));
+                    barrier.await();
+                    logger.warn(message);
+                    barrier.await();
+                    subject.afterEach(null);
+                } catch (Throwable throwable) {
+                    failures.add(throwable);
+                }
+            }));
+        }
+
+        for (Thread testThread : testThreads) {
+            testThread.start();
+        }
+        for (Thread testThread : testThreads) {
+            testThread.join();
+        }
+
+        assertEquals(emptyList(), failures);
+    }
+
     @Test
     public void testUnexpectedError() throws Throwable {
         MutedLogAsserterExtension subject = new MutedLogAsserterExtension(Level.INFO);
@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
+import java.time.Duration;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -39,6 +41,22 @@ public abstract class AbstractMutedLogAsserterRuleTest {
         subject.after();
     }
 
+    @Test
+    public void testAssertAndResetNoExpectedLogWithTimeout() throws Throwable {
+        MutedLogAsserterRule subject = new MutedLogAsserterRule(Level.WARN, Duration.ofMillis(250));
+        subject.before();
+        subject.expect(Level.WARN);
+
+        try {
+            subject.assertAndReset();
+            fail("expected an exception for the unexpected log");
+        } catch (AssertionError exception) {
+            assertEquals("1 expected log entries did not occur after waiting 250ms: WARN", exception.getMessage());
+        }
+
+        subject.after();
+    }
+
     @Test
     public void testExpectedError() throws Throwable {
         MutedLogAsserterRule subject = new MutedLogAsserterRule(/* default constructor assumes WARN */);
@@ -64,6 +82,20 @@ public abstract class AbstractMutedLogAsserterRuleTest {
         subject.after();
     }
 
+    @Test
+    public void testTestScoped() throws Throwable {
+        Thread otherTestThread = new Thread(() -> logger.error("error of another test"));
+        MutedLogAsserterRule subject = new MutedLogAsserterRule();
+        subject.setTestScoped(true);
+        subject.before();
+        assertNotNull(subject.getMutedLogAsserter().getScope());
+
+        otherTestThread.start();
+        otherTestThread.join();
+
+        subject.after();
+    }
+
     @Test
     public void testUnexpectedError() throws Throwable {
         MutedLogAsserterRule subject = new MutedLogAsserterRule(Level.INFO);
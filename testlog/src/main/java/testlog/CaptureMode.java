@@ -0,0 +1,18 @@
+package testlog;
+
+/**
+ * How a log asserter captures log items from the threads that are logging
+ */
+public enum CaptureMode {
+    /**
+     * Match every log item against the expectations right away, in the thread that is logging. This is the default
+     */
+    DIRECT,
+
+    /**
+     * Buffer log items per logging thread, stamped with a global sequence number, and only match them against the
+     * expectations, in sequence order, when the expectations are asserted. This keeps the threads that are logging
+     * from contending on the state of the log asserter, at the expense of reporting unexpected logs only upon assertion
+     */
+    STRIPED
+}
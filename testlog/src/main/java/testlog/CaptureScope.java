@@ -0,0 +1,109 @@
+package testlog;
+
+import java.io.Closeable;
+import java.util.concurrent.Callable;
+
+/**
+ * Scope of the log events of a single test, for when tests run in parallel. A scope belongs to the thread that opened
+ * it, and is inherited by the threads that are started from there. Tasks that run on threads that existed before, like
+ * those of a thread pool, can be brought into the scope by wrapping them. Conversely, the threads of a pool that were
+ * started in the scope stay in it until it is closed, so that the tasks of other tests that they run are attributed to
+ * it. Note that log events that a logging framework appends from a thread of its own (asynchronous logging) have no
+ * scope
+ */
+public class CaptureScope implements Closeable {
+    private static final InheritableThreadLocal<CaptureScope> currentScope = new InheritableThreadLocal<>();
+
+    private final CaptureScope previousScope;
+
+    private volatile boolean closed;
+
+    private CaptureScope(CaptureScope previousScope) {
+        this.previousScope = previousScope;
+    }
+
+    /**
+     * Get the scope of the current thread.
+     *
+     * @return current scope, or null if none
+     */
+    public static CaptureScope getCurrent() {
+        CaptureScope scope = currentScope.get();
+        if (scope != null && scope.closed) {
+            // closed from another thread, or inherited by a thread that outlived it
+            while (scope != null && scope.closed) {
+                scope = scope.previousScope;
+            }
+            setCurrent(scope);
+        }
+        return scope;
+    }
+
+    /**
+     * Wrap a task, so that it runs in the scope of the current thread, whichever thread it runs on.
+     *
+     * @param callable task to wrap
+     * @param <V>      result type of the task
+     * @return wrapped task
+     */
+    public static <V> Callable<V> wrap(Callable<V> callable) {
+        CaptureScope scope = getCurrent();
+        return () -> {
+            CaptureScope previousScope = getCurrent();
+            setCurrent(scope);
+            try {
+                return callable.call();
+            } finally {
+                setCurrent(previousScope);
+            }
+        };
+    }
+
+    /**
+     * Wrap a task, so that it runs in the scope of the current thread, whichever thread it runs on.
+     *
+     * @param runnable task to wrap
+     * @return wrapped task
+     */
+    public static Runnable wrap(Runnable runnable) {
+        CaptureScope scope = getCurrent();
+        return () -> {
+            CaptureScope previousScope = getCurrent();
+            setCurrent(scope);
+            try {
+                runnable.run();
+            } finally {
+                setCurrent(previousScope);
+            }
+        };
+    }
+
+    /**
+     * Open a new scope for the current thread, and the threads that it starts from now on.
+     *
+     * @return new scope
+     */
+    static CaptureScope open() {
+        CaptureScope scope = new CaptureScope(getCurrent());
+        setCurrent(scope);
+        return scope;
+    }
+
+    private static void setCurrent(CaptureScope scope) {
+        if (scope == null) {
+            currentScope.remove();
+        } else {
+            currentScope.set(scope);
+        }
+    }
+
+    /**
+     * Close the scope, restoring the previous scope of the thread that opened it, and of the threads that inherited it.
+     * This may be called from any thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        getCurrent(); // restores the previous scope of the current thread, the other threads follow upon next use
+    }
+}
@@ -0,0 +1,103 @@
+package testlog;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.String.format;
+
+/**
+ * Histogram of latencies, in the manner of HdrHistogram: every power of two of nanoseconds is divided into the same
+ * number of linear sub-buckets, so that any latency is kept within about 3% of its value, in a fixed array of counts.
+ * Latencies are recorded without locking, so that the threads that are logging can record them concurrently
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    // linear up to twice the sub-bucket count, then one set of sub-buckets for each bit that is shifted out
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong maximum = new AtomicLong();
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * @return number of latencies that were recorded
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * @return highest latency that was recorded, or zero if none were
+     */
+    public Duration getMaximum() {
+        return Duration.ofNanos(maximum.get());
+    }
+
+    /**
+     * @param percentile percentile, from 0 to 100
+     * @return latency that the given percentage of the recorded latencies does not exceed, or zero if none were
+     * recorded
+     */
+    public Duration getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(format("Percentile should be from 0 to 100, was %s", percentile));
+        }
+        long count = totalCount.get();
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT && count > 0; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(getHighestValue(index), maximum.get()));
+            }
+        }
+        return getMaximum();
+    }
+
+    /**
+     * @param latency latency to record, of which a negative one counts as zero
+     */
+    public void record(Duration latency) {
+        long nanos = Math.max(0, latency.toNanos());
+        counts.incrementAndGet(getIndex(nanos));
+        maximum.accumulateAndGet(nanos, Math::max);
+        totalCount.incrementAndGet();
+    }
+
+    /**
+     * @return summary of the recorded latencies, with the median, the 99th percentile and the maximum
+     */
+    @Override
+    public String toString() {
+        return format("%d latencies, p50 %s, p99 %s, max %s", getCount(), toMillis(getPercentile(50)),
+                toMillis(getPercentile(99)), toMillis(getMaximum()));
+    }
+
+    private static long getHighestValue(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static int getIndex(long nanos) {
+        int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS - 1);
+        if (shift == 0) {
+            return (int) nanos;
+        }
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (nanos >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    private static String toMillis(Duration latency) {
+        return format(Locale.ROOT, "%.3fms", latency.toNanos() / 1_000_000.0);
+    }
+}
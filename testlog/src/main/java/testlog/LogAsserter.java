@@ -4,9 +4,16 @@ import org.hamcrest.Matcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
+import testlog.history.History;
+import testlog.history.HistoryQuery;
+import testlog.history.IndexedHistory;
+import testlog.history.UnboundedHistory;
+import testlog.impl.CaptureMetrics;
+import testlog.impl.CaptureMetrics.Counter;
 import testlog.impl.LogCallback;
 import testlog.impl.Logging;
 import testlog.impl.LoggingFactory;
+import testlog.matcher.LogItemMatchers;
 import testlog.strategy.AssertionStrategy;
 import testlog.strategy.CountStrategy;
 import testlog.strategy.LevelsStrategy;
@@ -16,8 +23,19 @@ import testlog.strategy.NoopStrategy;
 import java.io.Closeable;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static java.lang.String.format;
 
@@ -26,23 +44,57 @@ import static java.lang.String.format;
  */
 public class LogAsserter implements LogCallback, Closeable {
 
+    /**
+     * Default time to wait for expected log events that did not occur yet, upon assertion
+     */
+    public static final Duration DEFAULT_TIME_OUT = Duration.ofMillis(5_000);
+
     public static final NoopStrategy NOOP_STRATEGY = new NoopStrategy();
 
     private static final int MAXIMUM_MESSAGE_LENGTH = 80;
 
-    private static final long MAXIMUM_TIME_OUT = 5_000;
-
     private static final Logger logger = LoggerFactory.getLogger(LogAsserter.class);
 
+    private static final LatencyHistogram suiteArrivalLatencies = new LatencyHistogram();
+
+    private static final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "testlog-await-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final LatencyHistogram arrivalLatencies = new LatencyHistogram();
+
+    private final Condition expectationsSettled;
+
+    private final Lock lock = new ReentrantLock();
+
     private final Logging logging;
 
     private final Level minimumLevel;
 
+    private final Queue<PendingLog> pendingLogs = new ConcurrentLinkedQueue<>();
+
+    private final StripedCaptureBuffer stripedCaptureBuffer = new StripedCaptureBuffer();
+
     private AssertionError assertionError;
 
     private AssertionStrategy assertionStrategy;
 
-    private List<LogItem> history = new ArrayList<>();
+    private volatile boolean awaitingArrivals;
+
+    private volatile CaptureMode captureMode = CaptureMode.DIRECT;
+
+    private volatile long expectedAtMillis;
+
+    private volatile long expectedAtNanos;
+
+    private volatile IndexedHistory history = new IndexedHistory(new UnboundedHistory());
+
+    private volatile CaptureScope scope;
+
+    private volatile Duration timeout = DEFAULT_TIME_OUT;
 
     /**
      * Constructor.
@@ -51,9 +103,30 @@ public class LogAsserter implements LogCallback, Closeable {
      */
     @SuppressWarnings("WeakerAccess")
     public LogAsserter(Level minimumLevel) {
+        this(minimumLevel, false);
+    }
+
+    /**
+     * Constructor. A test scoped log asserter only captures the log events of the current test, that is of the current
+     * thread and the threads that it starts from now on, rather than the log events of all threads. This allows tests
+     * to run in parallel. The scope is opened before the log asserter is registered, so that no log event of another
+     * test slips in. Tasks that run on threads that existed before can be brought into the scope with
+     * {@link CaptureScope#wrap(Runnable)}. Mind that a thread that is started in the scope stays in it for as long as
+     * it runs, so a thread pool that is shared between tests should be started outside of the scope, or its threads
+     * attribute the log events of later tests to this one while it is open.
+     *
+     * @param minimumLevel minimum log level to assert on
+     * @param testScoped   true to only capture the log events of the current test
+     */
+    public LogAsserter(Level minimumLevel, boolean testScoped) {
         assertionStrategy = NOOP_STRATEGY;
+        expectationsSettled = lock.newCondition();
         this.minimumLevel = minimumLevel;
         logging = LoggingFactory.getLogging();
+        CaptureMetrics.trackHistory(history);
+        if (testScoped) {
+            scope = CaptureScope.open();
+        }
         initialize();
     }
 
@@ -64,13 +137,14 @@ public class LogAsserter implements LogCallback, Closeable {
     @SuppressWarnings("WeakerAccess")
     public void assertAndReset() {
         try {
+            drainStripedCaptureBuffer();
             if (assertionStrategy.hasRemainingExpectations()) {
                 try {
                     // wait for expectations, else they may bleed into the next test
                     // this is probably only true with something asynchronous in the chain
-                    synchronized (this) {
-                        wait(MAXIMUM_TIME_OUT);
-                    }
+                    long waitStart = System.nanoTime();
+                    waitForExpectations();
+                    CaptureMetrics.addAssertWaitNanos(System.nanoTime() - waitStart);
                     if (assertionError == null) {
                         assertExpectationsIsEmptyAfterWait();
                     }
@@ -87,6 +161,42 @@ public class LogAsserter implements LogCallback, Closeable {
         }
     }
 
+    /**
+     * Await a log event that is validated by the given matcher, without blocking. The future is completed by the
+     * thread that is logging, as soon as a matching log event occurs. Such log event is handed to the future instead
+     * of being asserted, also if it is below the minimum level of this asserter. Each log event completes at most one
+     * awaiting future, the one that has been waiting longest.
+     *
+     * @param matcher matcher for the log event to await
+     * @param timeout time after which the future is completed exceptionally with a {@link TimeoutException}
+     * @return future of the matching log event
+     */
+    public CompletableFuture<LogItem> awaitLog(Matcher<LogItem> matcher, Duration timeout) {
+        PendingLog pendingLog = new PendingLog(matcher);
+        pendingLogs.add(pendingLog);
+        ScheduledFuture<?> scheduledTimeout = timeoutScheduler.schedule(() -> {
+            String message = format("no log event matching %s occurred within %dms", matcher, timeout.toMillis());
+            pendingLog.future.completeExceptionally(new TimeoutException(message));
+        }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        pendingLog.future.whenComplete((logItem, throwable) -> {
+            pendingLogs.remove(pendingLog);
+            scheduledTimeout.cancel(false);
+        });
+        return pendingLog.future;
+    }
+
+    /**
+     * Await a log event of the given level, without blocking.
+     *
+     * @param level   level of the log event to await
+     * @param timeout time after which the future is completed exceptionally with a {@link TimeoutException}
+     * @return future of the matching log event
+     * @see #awaitLog(Matcher, Duration)
+     */
+    public CompletableFuture<LogItem> awaitLog(Level level, Duration timeout) {
+        return awaitLog(LogItemMatchers.level(level), timeout);
+    }
+
     @Override
     public void close() {
         tearDown();
@@ -133,32 +243,112 @@ public class LogAsserter implements LogCallback, Closeable {
     }
 
     public ExpectedLogs expect(AssertionStrategy strategy) {
+        expectedAtMillis = System.currentTimeMillis();
+        expectedAtNanos = System.nanoTime();
         assertionStrategy = strategy;
         return this::assertAndReset;
     }
 
+    /**
+     * Get the latencies from setting the expectations up to the arrival of each log item that fulfilled one of them,
+     * for this log asserter. Log items that are only tolerated, like by a rate, are left out. Print it for a summary,
+     * e.g. to see which timeouts can be tightened.
+     *
+     * @return arrival latencies of the expected log items
+     */
+    public LatencyHistogram getArrivalLatencies() {
+        return arrivalLatencies;
+    }
+
+    @Override
+    public Level getMinimumLevel() {
+        // log events that are below the minimum level are still of interest when awaited
+        return pendingLogs.isEmpty() ? minimumLevel : Level.TRACE;
+    }
+
     @Override
-    public void log(Level level, String message, Throwable throwable) {
-        if (level.toInt() < minimumLevel.toInt()) {
+    public CaptureScope getScope() {
+        return scope;
+    }
+
+    @Override
+    public void log(LogItem logItem) {
+        if (!CaptureMetrics.isEnabled()) {
+            capture(logItem);
             return;
         }
+        long start = System.nanoTime();
+        try {
+            capture(logItem);
+        } finally {
+            CaptureMetrics.addLogNanos(System.nanoTime() - start);
+        }
+    }
 
-        LogItem logItem = new LogItem(level, message, throwable);
-        history.add(logItem);
-        if (assertionStrategy.matchesNextExpectation(logItem)) {
-            logInfoIfBelowMinimumLevel("allowed log at level %s: %s", level, message);
-            if (!assertionStrategy.hasRemainingExpectations()) {
-                synchronized (this) {
-                    notify(); // see the wait in tearDown
-                }
-            }
-            return;
+    /**
+     * Query the history of the log items that were captured since the expectations were last asserted, e.g. to count
+     * the warnings of a given logger: {@code queryHistory().level(Level.WARN).logger("com.acme.billing").count()}. The
+     * history is indexed by level and logger as log items are captured, so that a query only visits the log items of
+     * the levels and loggers that it asks for.
+     *
+     * @return query that matches all log items that the history retains, to be narrowed down
+     */
+    public HistoryQuery queryHistory() {
+        drainStripedCaptureBuffer();
+        return history.query();
+    }
+
+    /**
+     * Choose how log items are captured from the threads that are logging. The default is {@link CaptureMode#DIRECT}.
+     *
+     * @param captureMode capture mode to use going forward
+     */
+    public void setCaptureMode(CaptureMode captureMode) {
+        drainStripedCaptureBuffer();
+        this.captureMode = captureMode;
+    }
+
+    /**
+     * Replace the history of log items that is used to explain failures, for instance with a
+     * {@link testlog.history.BoundedHistory} to limit the memory use of long running tests. The log items that were
+     * captured so far are forgotten, and the history that is replaced is closed.
+     *
+     * @param history history to use going forward
+     */
+    public void setHistory(History history) {
+        CaptureMetrics.untrackHistory(this.history);
+        this.history.close();
+        this.history = new IndexedHistory(history);
+        CaptureMetrics.trackHistory(this.history);
+    }
+
+    /**
+     * Choose whether to only capture the log events of the current test, that is of the current thread and the threads
+     * that it starts from now on, rather than the log events of all threads. The log events that were captured before
+     * are kept, also those of other threads, so prefer to choose upon construction.
+     *
+     * @param testScoped true to only capture the log events of the current test
+     * @see #LogAsserter(Level, boolean)
+     */
+    public void setTestScoped(boolean testScoped) {
+        if (testScoped && scope == null) {
+            scope = CaptureScope.open();
+        } else if (!testScoped) {
+            closeScope();
         }
+    }
 
-        if (assertionError == null) {
-            assertUnexpectedLogging(logItem);
+    /**
+     * Configure how long to wait for expected log events that did not occur yet, upon assertion. The default is
+     * {@link #DEFAULT_TIME_OUT}.
+     *
+     * @param timeout time to wait
+     */
+    public void setTimeout(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException(format("Time out should not be negative, was %s", timeout));
         }
-        assertionStrategy.removeLaterExpectationForEfficiency(logItem);
+        this.timeout = timeout;
     }
 
     /**
@@ -170,17 +360,25 @@ public class LogAsserter implements LogCallback, Closeable {
             assertAndReset();
         } finally {
             logging.deregisterCallback(this);
+            closeScope();
+            CaptureMetrics.untrackHistory(history);
+            history.close();
+            for (PendingLog pendingLog : pendingLogs) {
+                pendingLog.future.completeExceptionally(new CancellationException("the log asserter was torn down"));
+            }
         }
     }
 
     protected void assertUnexpectedLogging(LogItem logItem) {
-        String template = "Unexpected %s log during test execution with the following message: %s"
+        String template = "Unexpected %s log during test execution with the following message: %s%s"
                 + "\n"
                 + "History:"
                 + "%s"
                 + "\n"
                 + "(now follows once more the stacktrace for the log item that caused this)";
-        String exceptionMessage = format(template, logItem.getLevel(), getMessageSummary(logItem), getHistory(logItem));
+        String mismatch = assertionStrategy.describeMismatch(logItem);
+        String exceptionMessage = format(template, logItem.getLevel(), getMessageSummary(logItem),
+                mismatch == null ? "" : format("\n(%s)", mismatch), getHistory(logItem));
         assertionError = new AssertionError(exceptionMessage, logItem.getThrowable());
     }
 
@@ -197,14 +395,61 @@ public class LogAsserter implements LogCallback, Closeable {
             int count = assertionStrategy.getRemainingCount();
             String remaining = assertionStrategy.describeRemainingExpectations();
             String format = "%d expected log entries did not occur after waiting %dms: %s";
-            throw new AssertionError(format(format, count, MAXIMUM_TIME_OUT, String.join(", ", remaining)));
+            throw new AssertionError(format(format, count, timeout.toMillis(), String.join(", ", remaining)));
+        }
+    }
+
+    private void capture(LogItem logItem) {
+        CaptureMetrics.count(Counter.SEEN, logItem.getLevel());
+        boolean belowMinimumLevel = logItem.getLevel().toInt() < minimumLevel.toInt();
+        if (belowMinimumLevel && pendingLogs.isEmpty()) {
+            return;
+        }
+
+        if (completePendingLog(logItem) || belowMinimumLevel) {
+            return;
+        }
+        CaptureMetrics.count(Counter.CAPTURED, logItem.getLevel());
+        if (captureMode == CaptureMode.STRIPED) {
+            stripedCaptureBuffer.add(logItem);
+            if (awaitingArrivals) {
+                signalExpectationsSettled(); // see the wait in waitForExpectations, which drains the buffer
+            }
+            return;
+        }
+
+        process(logItem);
+    }
+
+    private void closeScope() {
+        if (scope != null) {
+            scope.close();
+            scope = null;
+        }
+    }
+
+    private boolean completePendingLog(LogItem logItem) {
+        for (PendingLog pendingLog : pendingLogs) {
+            if (pendingLog.matcher.matches(logItem) && pendingLog.future.complete(logItem)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private void drainStripedCaptureBuffer() {
+        stripedCaptureBuffer.drainTo(this::process);
     }
 
     private String getHistory(LogItem logItem) {
         StringBuilder stringBuilder = new StringBuilder();
-        for (int i = 1; i <= history.size(); i++) {
-            LogItem item = history.get(i - 1);
+        long[] previous = {0};
+        history.forEach((item, i) -> {
+            if (i > previous[0] + 1) {
+                stringBuilder.append(format("\n (...) %d log items dropped from history", i - previous[0] - 1));
+            }
+            previous[0] = i;
+
             stringBuilder.append(format("\n (%d) %s: %s", i, item.getLevel(), item.getMessage()));
             if (logItem == item) {
                 stringBuilder.append(format("\n (%d) -- this is the one that caused the log asserter to fail --", i));
@@ -218,7 +463,7 @@ public class LogAsserter implements LogCallback, Closeable {
                 }
                 stringBuilder.append(format("\n (%d)", i));
             }
-        }
+        });
         return stringBuilder.toString();
     }
 
@@ -229,9 +474,51 @@ public class LogAsserter implements LogCallback, Closeable {
                : message;
     }
 
-    private void logInfoIfBelowMinimumLevel(String format, Object... args) {
+    private void logAllowedIfBelowMinimumLevel(LogItem logItem) {
+        // check first, so that the message is not rendered needlessly
         if (Level.INFO.toInt() < minimumLevel.toInt()) {
-            logger.info(format(format, args));
+            logger.info(format("allowed log at level %s: %s", logItem.getLevel(), logItem.getMessage()));
+        }
+    }
+
+    private void process(LogItem logItem) {
+        history.add(logItem);
+        int remainingCount = assertionStrategy.getRemainingCount();
+        if (assertionStrategy.matchesNextExpectation(logItem)) {
+            CaptureMetrics.count(Counter.MATCHED, logItem.getLevel());
+            // only for a log item that fulfils an expectation, not for one that the strategy merely tolerates
+            if (assertionStrategy.getRemainingCount() < remainingCount) {
+                recordArrivalLatency(logItem);
+            }
+            logAllowedIfBelowMinimumLevel(logItem);
+            if (!assertionStrategy.hasRemainingExpectations()) {
+                signalExpectationsSettled(); // see the wait in waitForExpectations
+            }
+            return;
+        }
+
+        CaptureMetrics.count(Counter.REJECTED, logItem.getLevel());
+        if (assertionError == null) {
+            assertUnexpectedLogging(logItem);
+        }
+        assertionStrategy.removeLaterExpectationForEfficiency(logItem);
+    }
+
+    private void recordArrivalLatency(LogItem logItem) {
+        // buffered log items are processed some time after they arrived, which their timestamp still tells
+        Duration latency = captureMode == CaptureMode.STRIPED && logItem.getTimestamp() != 0
+                           ? Duration.ofMillis(logItem.getTimestamp() - expectedAtMillis)
+                           : Duration.ofNanos(System.nanoTime() - expectedAtNanos);
+        arrivalLatencies.record(latency);
+        suiteArrivalLatencies.record(latency);
+    }
+
+    private void signalExpectationsSettled() {
+        lock.lock();
+        try {
+            expectationsSettled.signalAll();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -248,6 +535,34 @@ public class LogAsserter implements LogCallback, Closeable {
         }
     }
 
+    private void waitForExpectations() throws InterruptedException {
+        // the condition is checked while holding the lock, and signalled while holding the lock after the expectations
+        // changed, so a signal cannot get lost in between checking and waiting
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            awaitingArrivals = true;
+            drainStripedCaptureBuffer();
+            while (assertionStrategy.hasRemainingExpectations() && remaining > 0) {
+                remaining = expectationsSettled.awaitNanos(remaining);
+                drainStripedCaptureBuffer();
+            }
+        } finally {
+            awaitingArrivals = false;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the latencies from setting the expectations up to the arrival of each log item that matched them, for all
+     * log asserters in this JVM, like those of a whole test suite.
+     *
+     * @return arrival latencies of the expected log items
+     */
+    public static LatencyHistogram getSuiteArrivalLatencies() {
+        return suiteArrivalLatencies;
+    }
+
     /**
      * Set up a new log asserter.
      *
@@ -258,4 +573,26 @@ public class LogAsserter implements LogCallback, Closeable {
     public static LogAsserter setUpLogAsserter(Level minimumLevel) {
         return new LogAsserter(minimumLevel);
     }
+
+    /**
+     * Set up a new log asserter.
+     *
+     * @param minimumLevel minimum log level to assert on
+     * @param testScoped   true to only capture the log events of the current test
+     * @return new log asserter
+     * @see #LogAsserter(Level, boolean)
+     */
+    public static LogAsserter setUpLogAsserter(Level minimumLevel, boolean testScoped) {
+        return new LogAsserter(minimumLevel, testScoped);
+    }
+
+    private static class PendingLog {
+        private final CompletableFuture<LogItem> future = new CompletableFuture<>();
+
+        private final Matcher<LogItem> matcher;
+
+        PendingLog(Matcher<LogItem> matcher) {
+            this.matcher = matcher;
+        }
+    }
 }
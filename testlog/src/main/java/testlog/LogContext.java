@@ -0,0 +1,30 @@
+package testlog;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Context of a log event beyond its level, logger, message and throwable. Logging implementations hold on to what the
+ * log event already has, by reference where possible, and only convert it when it is asked for, typically by a matcher
+ */
+public interface LogContext {
+    /**
+     * @return names of the markers of the log event, including the markers that these refer to, or an empty list
+     */
+    List<String> getMarkers();
+
+    /**
+     * @return mapped diagnostic context of the thread that logged, as it was when it logged, which may not be modified
+     */
+    Map<String, String> getMdc();
+
+    /**
+     * @return name of the thread that logged
+     */
+    String getThreadName();
+
+    /**
+     * @return time at which the log event occurred, in milliseconds since the epoch
+     */
+    long getTimestamp();
+}
@@ -2,28 +2,139 @@ package testlog;
 
 import org.slf4j.event.Level;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+
 public class LogItem {
+    private final LogContext context;
+
     private final Level level;
 
-    private final String message;
+    private final String loggerName;
 
     private final Throwable throwable;
 
+    private volatile String message;
+
+    private volatile Supplier<String> messageSupplier;
+
     public LogItem(Level level, String message, Throwable throwable) {
+        this.context = null;
         this.level = level;
+        this.loggerName = null;
         this.message = message;
         this.throwable = throwable;
     }
 
+    /**
+     * Constructor for a log item of which the message is only rendered once it is asked for, which is typically only
+     * when a matcher looks at it, or when a failure is explained. Note that arguments of the message that are mutated
+     * after the log event occurred will be rendered in their mutated state.
+     *
+     * @param level           level of the log event
+     * @param messageSupplier supplier that renders the message, called at most once (barring races)
+     * @param throwable       throwable of the log event, if any
+     */
+    public LogItem(Level level, Supplier<String> messageSupplier, Throwable throwable) {
+        this(level, null, messageSupplier, throwable);
+    }
+
+    /**
+     * Constructor for a log item of a named logger, of which the message is only rendered once it is asked for.
+     *
+     * @param level           level of the log event
+     * @param loggerName      name of the logger of the log event, if known
+     * @param messageSupplier supplier that renders the message, called at most once (barring races)
+     * @param throwable       throwable of the log event, if any
+     * @see #LogItem(Level, Supplier, Throwable)
+     */
+    public LogItem(Level level, String loggerName, Supplier<String> messageSupplier, Throwable throwable) {
+        this(level, loggerName, messageSupplier, throwable, null);
+    }
+
+    /**
+     * Constructor for a log item of a named logger, with the context of the log event, of which the message is only
+     * rendered once it is asked for.
+     *
+     * @param level           level of the log event
+     * @param loggerName      name of the logger of the log event, if known
+     * @param messageSupplier supplier that renders the message, called at most once (barring races)
+     * @param throwable       throwable of the log event, if any
+     * @param context         context of the log event, if known
+     * @see #LogItem(Level, Supplier, Throwable)
+     */
+    public LogItem(Level level, String loggerName, Supplier<String> messageSupplier, Throwable throwable,
+                   LogContext context) {
+        this.context = context;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.messageSupplier = messageSupplier;
+        this.throwable = throwable;
+    }
+
+    /**
+     * @return context of the log event, or null if not known
+     */
+    public LogContext getContext() {
+        return context;
+    }
+
     public Level getLevel() {
         return level;
     }
 
+    /**
+     * @return name of the logger of the log event, or null if not known
+     */
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    /**
+     * @return names of the markers of the log event, or an empty list if none or not known
+     * @see LogContext#getMarkers()
+     */
+    public List<String> getMarkers() {
+        return context == null ? emptyList() : context.getMarkers();
+    }
+
+    /**
+     * @return mapped diagnostic context of the log event, or an empty map if not known
+     * @see LogContext#getMdc()
+     */
+    public Map<String, String> getMdc() {
+        return context == null ? emptyMap() : context.getMdc();
+    }
+
     public String getMessage() {
+        Supplier<String> supplier = messageSupplier;
+        if (supplier != null) {
+            // rendering twice in a race is harmless, so don't bother locking
+            message = supplier.get();
+            messageSupplier = null;
+        }
         return message;
     }
 
+    /**
+     * @return name of the thread that logged, or null if not known
+     */
+    public String getThreadName() {
+        return context == null ? null : context.getThreadName();
+    }
+
     public Throwable getThrowable() {
         return throwable;
     }
+
+    /**
+     * @return time at which the log event occurred, in milliseconds since the epoch, or 0 if not known
+     */
+    public long getTimestamp() {
+        return context == null ? 0 : context.getTimestamp();
+    }
 }
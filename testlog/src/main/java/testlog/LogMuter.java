@@ -2,9 +2,12 @@ package testlog;
 
 import testlog.impl.Logging;
 import testlog.impl.LoggingFactory;
+import testlog.impl.ReplayBuffer;
 
 import java.io.Closeable;
 
+import static java.lang.String.format;
+
 /**
  * Mute the log. Meant to be used during unit tests
  */
@@ -14,6 +17,12 @@ public class LogMuter implements Closeable {
 
     private boolean mute = false;
 
+    private ReplayBuffer replayBuffer;
+
+    private long replayCapacity;
+
+    private CaptureScope replayScope;
+
     public LogMuter() {
         logging = LoggingFactory.getLogging();
     }
@@ -41,6 +50,7 @@ public class LogMuter implements Closeable {
         if (!mute) {
             logging.mute();
             mute = true;
+            openReplayBuffer();
         }
     }
 
@@ -49,6 +59,7 @@ public class LogMuter implements Closeable {
      */
     public void enableOutput() {
         if (mute) {
+            discardReplayBuffer();
             logging.unmute();
             mute = false;
         }
@@ -58,6 +69,55 @@ public class LogMuter implements Closeable {
         return logging;
     }
 
+    /**
+     * Write the muted log output that was buffered after all, e.g. because a test failed, and stop buffering. This only
+     * has effect if a replay capacity is set.
+     *
+     * @see #setReplayCapacity(long)
+     */
+    public void replayOutput() {
+        if (replayBuffer != null) {
+            replayBuffer.replay();
+            replayBuffer = null;
+        }
+    }
+
+    /**
+     * Buffer the muted log output in memory, so that it can be replayed if a test fails, rather than being lost. When
+     * the buffer exceeds the capacity, its oldest log events are dropped. The buffer is discarded when the output is
+     * enabled again, unless it was replayed. Setting the capacity while muted discards what was buffered so far.
+     *
+     * @param replayCapacity estimate of the bytes to buffer at most, or 0 not to buffer (the default)
+     * @see #replayOutput()
+     */
+    public void setReplayCapacity(long replayCapacity) {
+        if (replayCapacity < 0) {
+            throw new IllegalArgumentException(
+                    format("Replay capacity should not be negative, was %s", replayCapacity));
+        }
+        this.replayCapacity = replayCapacity;
+        if (mute) {
+            discardReplayBuffer();
+            openReplayBuffer();
+        }
+    }
+
+    /**
+     * Only buffer the muted log output of the given scope, rather than of all threads, so that tests that run in
+     * parallel do not replay each other's log output. Setting the scope while muted discards what was buffered so far.
+     *
+     * @param replayScope scope of the threads of which to buffer the log output, like the scope of a test scoped
+     *                    {@link LogAsserter}, or null for all threads (the default)
+     * @see LogAsserter#getScope()
+     */
+    public void setReplayScope(CaptureScope replayScope) {
+        this.replayScope = replayScope;
+        if (mute) {
+            discardReplayBuffer();
+            openReplayBuffer();
+        }
+    }
+
     /**
      * Tear down the log muter. Don't forget to tear down, else subsequent tests that are executed will have their log
      * muted too, since the logging infrastructure may be static
@@ -65,4 +125,17 @@ public class LogMuter implements Closeable {
     public void tearDown() {
         enableOutput();
     }
+
+    private void discardReplayBuffer() {
+        if (replayBuffer != null) {
+            replayBuffer.discard();
+            replayBuffer = null;
+        }
+    }
+
+    private void openReplayBuffer() {
+        if (replayCapacity > 0) {
+            replayBuffer = logging.openReplayBuffer(replayCapacity, replayScope);
+        }
+    }
 }
@@ -10,18 +10,68 @@ public class MutedLogAsserter extends LogAsserter {
         super(minimumLevel);
     }
 
+    /**
+     * Constructor. A test scoped muted log asserter only captures, and buffers for replay, the log events of the
+     * current test.
+     *
+     * @param minimumLevel minimum log level to assert on
+     * @param testScoped   true to only capture and replay the log events of the current test
+     * @see LogAsserter#LogAsserter(Level, boolean)
+     */
+    public MutedLogAsserter(Level minimumLevel, boolean testScoped) {
+        super(minimumLevel, testScoped);
+    }
+
     public static MutedLogAsserter setupMutedLogAsserter(Level minimumLevel) {
         return new MutedLogAsserter(minimumLevel);
     }
 
+    public static MutedLogAsserter setupMutedLogAsserter(Level minimumLevel, boolean testScoped) {
+        return new MutedLogAsserter(minimumLevel, testScoped);
+    }
+
     @Override
     public void close() {
         tearDown();
     }
 
+    /**
+     * Write the muted log output that was buffered after all, e.g. because a test failed.
+     *
+     * @see LogMuter#replayOutput()
+     */
+    public void replayOutput() {
+        logMuter.replayOutput();
+    }
+
+    /**
+     * Buffer the muted log output in memory, so that it is replayed if the assertion fails, rather than being lost.
+     *
+     * @param replayCapacity estimate of the bytes to buffer at most, or 0 not to buffer (the default)
+     * @see LogMuter#setReplayCapacity(long)
+     */
+    public void setReplayCapacity(long replayCapacity) {
+        logMuter.setReplayCapacity(replayCapacity);
+    }
+
+    /**
+     * Choose whether to only capture the log events of the current test, and to only buffer the muted log output of
+     * the current test for replay.
+     *
+     * @param testScoped true to only capture and replay the log events of the current test
+     * @see #MutedLogAsserter(Level, boolean)
+     * @see LogMuter#setReplayScope(CaptureScope)
+     */
+    @Override
+    public void setTestScoped(boolean testScoped) {
+        super.setTestScoped(testScoped);
+        logMuter.setReplayScope(getScope());
+    }
+
     /**
      * Tear down the log muter and asserter. Don't forget to tear down, else subsequent tests that are executed will
-     * have their log muted too and will assert too, since the logging infrastructure may be static
+     * have their log muted too and will assert too, since the logging infrastructure may be static. If the assertion
+     * fails, the muted log output that was buffered is replayed first
      *
      * @see LogAsserter#tearDown()
      * @see LogMuter#tearDown()
@@ -30,6 +80,9 @@ public class MutedLogAsserter extends LogAsserter {
     public void tearDown() {
         try {
             super.tearDown();
+        } catch (AssertionError | RuntimeException exception) {
+            logMuter.replayOutput();
+            throw exception;
         } finally {
             logMuter.tearDown();
         }
@@ -37,13 +90,16 @@ public class MutedLogAsserter extends LogAsserter {
 
     @Override
     protected void assertUnexpectedLogging(LogItem logItem) {
+        logMuter.replayOutput();
         logMuter.enableOutput();
         super.assertUnexpectedLogging(logItem);
     }
 
     @Override
     protected void initialize() {
-        logMuter = LogMuter.setupLogMuter();
+        logMuter = new LogMuter();
+        logMuter.setReplayScope(getScope());
+        logMuter.disableOutput();
         super.initialize();
     }
 }
@@ -4,12 +4,28 @@ import org.hamcrest.Matcher;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
 import org.slf4j.event.Level;
 
+import java.time.Duration;
+
+/**
+ * JUnit 5 extension that sets up a muted log asserter for each test. The log asserter is kept per test, so that tests
+ * that run concurrently can share one registered extension, as long as they set up their expectations from the thread
+ * that runs the test
+ */
 public class MutedLogAsserterExtension implements AfterEachCallback, BeforeEachCallback {
+    private static final Namespace NAMESPACE = Namespace.create(MutedLogAsserterExtension.class);
+
+    private final ThreadLocal<MutedLogAsserter> currentMutedLogAsserter = new ThreadLocal<>();
+
     private Level minimumLevel;
 
-    private MutedLogAsserter mutedLogAsserter;
+    private long replayCapacity;
+
+    private boolean testScoped;
+
+    private Duration timeout;
 
     /**
      * Constructor. Initialize at default minimum level ({@link Level#WARN})
@@ -17,6 +33,7 @@ public class MutedLogAsserterExtension implements AfterEachCallback, BeforeEachC
     @SuppressWarnings("WeakerdAccess")
     public MutedLogAsserterExtension() {
         minimumLevel = Level.WARN;
+        timeout = LogAsserter.DEFAULT_TIME_OUT;
     }
 
     /**
@@ -25,11 +42,29 @@ public class MutedLogAsserterExtension implements AfterEachCallback, BeforeEachC
      * @param minimumLevel minimum log level to assert on
      */
     public MutedLogAsserterExtension(Level minimumLevel) {
+        this(minimumLevel, LogAsserter.DEFAULT_TIME_OUT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param minimumLevel minimum log level to assert on
+     * @param timeout      time to wait for expected log events that did not occur yet, upon assertion
+     */
+    public MutedLogAsserterExtension(Level minimumLevel, Duration timeout) {
         this.minimumLevel = minimumLevel;
+        this.timeout = timeout;
     }
 
     @Override
     public void afterEach(ExtensionContext extensionContext) throws Exception {
+        MutedLogAsserter mutedLogAsserter = extensionContext == null
+                ? currentMutedLogAsserter.get()
+                : extensionContext.getStore(NAMESPACE).remove(MutedLogAsserter.class, MutedLogAsserter.class);
+        currentMutedLogAsserter.remove();
+        if (extensionContext != null && extensionContext.getExecutionException().isPresent()) {
+            mutedLogAsserter.replayOutput();
+        }
         mutedLogAsserter.tearDown();
     }
 
@@ -41,12 +76,18 @@ public class MutedLogAsserterExtension implements AfterEachCallback, BeforeEachC
      */
     @SuppressWarnings("WeakerAccess")
     public void assertAndReset() {
-        mutedLogAsserter.assertAndReset();
+        getMutedLogAsserter().assertAndReset();
     }
 
     @Override
     public void beforeEach(ExtensionContext extensionContext) throws Exception {
-        mutedLogAsserter = MutedLogAsserter.setupMutedLogAsserter(minimumLevel);
+        MutedLogAsserter mutedLogAsserter = MutedLogAsserter.setupMutedLogAsserter(minimumLevel, testScoped);
+        mutedLogAsserter.setTimeout(timeout);
+        mutedLogAsserter.setReplayCapacity(replayCapacity);
+        if (extensionContext != null) {
+            extensionContext.getStore(NAMESPACE).put(MutedLogAsserter.class, mutedLogAsserter);
+        }
+        currentMutedLogAsserter.set(mutedLogAsserter);
     }
 
     /**
@@ -59,7 +100,7 @@ public class MutedLogAsserterExtension implements AfterEachCallback, BeforeEachC
      */
     @SuppressWarnings("WeakerAccess")
     public ExpectedLogs expect(Level... levels) {
-        return mutedLogAsserter.expect(levels);
+        return getMutedLogAsserter().expect(levels);
     }
 
     /**
@@ -72,7 +113,7 @@ public class MutedLogAsserterExtension implements AfterEachCallback, BeforeEachC
      */
     @SafeVarargs
     public final ExpectedLogs expect(Matcher<LogItem>... matchers) {
-        return mutedLogAsserter.expect(matchers);
+        return getMutedLogAsserter().expect(matchers);
     }
 
     /**
@@ -84,10 +125,44 @@ public class MutedLogAsserterExtension implements AfterEachCallback, BeforeEachC
      * @see MutedLogAsserter#expect(int)
      */
     public ExpectedLogs expect(int count) {
-        return mutedLogAsserter.expect(count);
+        return getMutedLogAsserter().expect(count);
+    }
+
+    /**
+     * Get the latencies from setting the expectations up to the arrival of each log item that matched them, for the
+     * current test.
+     *
+     * @return arrival latencies of the expected log items
+     * @see LogAsserter#getArrivalLatencies()
+     */
+    public LatencyHistogram getArrivalLatencies() {
+        return getMutedLogAsserter().getArrivalLatencies();
+    }
+
+    /**
+     * Buffer the muted log output in memory, so that it is replayed if the test fails, rather than being lost.
+     *
+     * @param replayCapacity estimate of the bytes to buffer at most, or 0 not to buffer (the default)
+     * @see LogMuter#setReplayCapacity(long)
+     */
+    public void setReplayCapacity(long replayCapacity) {
+        this.replayCapacity = replayCapacity;
+    }
+
+    /**
+     * Choose whether to only capture the log events of the test that is executing, so that tests can run in parallel.
+     * This is not chosen automatically when JUnit executes tests in parallel, since a test scoped log asserter misses
+     * the log events of threads that the test did not start, like those of a thread pool that existed before or of an
+     * asynchronous appender, unless these are brought into the scope with {@link CaptureScope#wrap(Runnable)}.
+     *
+     * @param testScoped true to only capture the log events of the test that is executing
+     * @see LogAsserter#LogAsserter(Level, boolean)
+     */
+    public void setTestScoped(boolean testScoped) {
+        this.testScoped = testScoped;
     }
 
     MutedLogAsserter getMutedLogAsserter() {
-        return mutedLogAsserter;
+        return currentMutedLogAsserter.get();
     }
 }
@@ -1,19 +1,30 @@
 package testlog;
 
 import org.junit.rules.ExternalResource;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
 import org.slf4j.event.Level;
 
+import java.time.Duration;
+
 public class MutedLogAsserterRule extends ExternalResource {
     private Level minimumLevel;
 
     private MutedLogAsserter mutedLogAsserter;
 
+    private long replayCapacity;
+
+    private boolean testScoped;
+
+    private Duration timeout;
+
     /**
      * Constructor. Initialize at default minimum level ({@link Level#WARN})
      */
     @SuppressWarnings("WeakerAccess")
     public MutedLogAsserterRule() {
         minimumLevel = Level.WARN;
+        timeout = LogAsserter.DEFAULT_TIME_OUT;
     }
 
     /**
@@ -22,7 +33,33 @@ public class MutedLogAsserterRule extends ExternalResource {
      * @param minimumLevel minimum log level to assert on
      */
     public MutedLogAsserterRule(Level minimumLevel) {
+        this(minimumLevel, LogAsserter.DEFAULT_TIME_OUT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param minimumLevel minimum log level to assert on
+     * @param timeout      time to wait for expected log events that did not occur yet, upon assertion
+     */
+    public MutedLogAsserterRule(Level minimumLevel, Duration timeout) {
         this.minimumLevel = minimumLevel;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        return super.apply(new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    base.evaluate();
+                } catch (Throwable throwable) {
+                    mutedLogAsserter.replayOutput();
+                    throw throwable;
+                }
+            }
+        }, description);
     }
 
     /**
@@ -49,6 +86,37 @@ public class MutedLogAsserterRule extends ExternalResource {
         return mutedLogAsserter.expect(levels);
     }
 
+    /**
+     * Get the latencies from setting the expectations up to the arrival of each log item that matched them, for the
+     * current test.
+     *
+     * @return arrival latencies of the expected log items
+     * @see LogAsserter#getArrivalLatencies()
+     */
+    public LatencyHistogram getArrivalLatencies() {
+        return mutedLogAsserter.getArrivalLatencies();
+    }
+
+    /**
+     * Buffer the muted log output in memory, so that it is replayed if the test fails, rather than being lost.
+     *
+     * @param replayCapacity estimate of the bytes to buffer at most, or 0 not to buffer (the default)
+     * @see LogMuter#setReplayCapacity(long)
+     */
+    public void setReplayCapacity(long replayCapacity) {
+        this.replayCapacity = replayCapacity;
+    }
+
+    /**
+     * Choose whether to only capture the log events of the test that is executing, so that tests can run in parallel.
+     *
+     * @param testScoped true to only capture the log events of the test that is executing
+     * @see LogAsserter#LogAsserter(Level, boolean)
+     */
+    public void setTestScoped(boolean testScoped) {
+        this.testScoped = testScoped;
+    }
+
     @Override
     protected void after() {
         mutedLogAsserter.tearDown();
@@ -56,7 +124,9 @@ public class MutedLogAsserterRule extends ExternalResource {
 
     @Override
     protected void before() throws Throwable {
-        mutedLogAsserter = MutedLogAsserter.setupMutedLogAsserter(minimumLevel);
+        mutedLogAsserter = MutedLogAsserter.setupMutedLogAsserter(minimumLevel, testScoped);
+        mutedLogAsserter.setTimeout(timeout);
+        mutedLogAsserter.setReplayCapacity(replayCapacity);
     }
 
     MutedLogAsserter getMutedLogAsserter() {
@@ -0,0 +1,90 @@
+package testlog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.Comparator.comparingLong;
+
+/**
+ * Buffer of log items with one stripe per logging thread, so that logging threads only ever write to their own stripe
+ * (besides taking a sequence number). The stripes are merged in sequence order when the buffer is drained
+ */
+class StripedCaptureBuffer {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Queue<Stripe> stripes = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<Stripe> threadStripe = ThreadLocal.withInitial(this::newStripe);
+
+    void add(LogItem logItem) {
+        threadStripe.get().add(sequence.getAndIncrement(), logItem);
+    }
+
+    /**
+     * Remove all buffered log items and hand them to the consumer, in sequence order. Log items that are being added
+     * concurrently may arrive with the next drain.
+     *
+     * @param consumer consumer of the buffered log items
+     */
+    void drainTo(Consumer<LogItem> consumer) {
+        List<Entry> entries = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.drainTo(entries);
+        }
+        entries.sort(comparingLong(entry -> entry.sequence));
+        for (Entry entry : entries) {
+            consumer.accept(entry.logItem);
+        }
+    }
+
+    private Stripe newStripe() {
+        Stripe stripe = new Stripe();
+        stripes.add(stripe);
+        return stripe;
+    }
+
+    private static class Entry {
+        private final LogItem logItem;
+
+        private final long sequence;
+
+        Entry(long sequence, LogItem logItem) {
+            this.sequence = sequence;
+            this.logItem = logItem;
+        }
+    }
+
+    private static class Stripe {
+        private LogItem[] logItems = new LogItem[INITIAL_CAPACITY];
+
+        private long[] sequences = new long[INITIAL_CAPACITY];
+
+        private int size;
+
+        // only contended while draining
+        synchronized void add(long sequence, LogItem logItem) {
+            if (size == logItems.length) {
+                logItems = Arrays.copyOf(logItems, size * 2);
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            logItems[size] = logItem;
+            sequences[size] = sequence;
+            size++;
+        }
+
+        synchronized void drainTo(List<Entry> entries) {
+            for (int i = 0; i < size; i++) {
+                entries.add(new Entry(sequences[i], logItems[i]));
+                logItems[i] = null;
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package testlog.history;
+
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+import static java.lang.String.format;
+
+/**
+ * History that retains a bounded number of log items per level, dropping the oldest log items of a level once its
+ * capacity is reached. Each level is backed by its own ring buffer, so that for instance all warnings and errors can
+ * be kept, while only the last so many debug and info log items are retained
+ */
+public class BoundedHistory implements History {
+    /**
+     * Capacity to retain all log items of a level
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Ring[] rings = new Ring[Level.values().length];
+
+    private long droppedCount;
+
+    private long sequence;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity number of log items to retain for each level, unless configured otherwise for that level
+     */
+    public BoundedHistory(int capacity) {
+        for (Level level : Level.values()) {
+            rings[level.ordinal()] = new Ring(validateCapacity(capacity));
+        }
+    }
+
+    @Override
+    public synchronized void add(LogItem logItem) {
+        sequence++;
+        if (rings[logItem.getLevel().ordinal()].add(logItem, sequence)) {
+            droppedCount++;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (Ring ring : rings) {
+            ring.clear();
+        }
+        droppedCount = 0;
+        sequence = 0;
+    }
+
+    @Override
+    public synchronized void forEach(ObjLongConsumer<LogItem> visitor) {
+        int[] positions = new int[rings.length];
+        while (true) {
+            // merge the rings, which are each ordered by sequence already
+            Ring next = null;
+            int nextIndex = -1;
+            for (int i = 0; i < rings.length; i++) {
+                Ring ring = rings[i];
+                if (positions[i] < ring.size
+                        && (next == null || ring.sequenceAt(positions[i]) < next.sequenceAt(positions[nextIndex]))) {
+                    next = ring;
+                    nextIndex = i;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            visitor.accept(next.itemAt(positions[nextIndex]), next.sequenceAt(positions[nextIndex]));
+            positions[nextIndex]++;
+        }
+    }
+
+    @Override
+    public synchronized LogItem get(long sequence) {
+        for (Ring ring : rings) {
+            int position = ring.positionOf(sequence);
+            if (position >= 0) {
+                return ring.itemAt(position);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public synchronized int size() {
+        int size = 0;
+        for (Ring ring : rings) {
+            size += ring.size;
+        }
+        return size;
+    }
+
+    /**
+     * Configure the number of log items to retain for the given levels.
+     *
+     * @param capacity number of log items to retain per level, or {@link #UNLIMITED}
+     * @param levels   levels to configure
+     * @return this history
+     */
+    public synchronized BoundedHistory withCapacity(int capacity, Level... levels) {
+        for (Level level : levels) {
+            droppedCount += rings[level.ordinal()].setCapacity(validateCapacity(capacity));
+        }
+        return this;
+    }
+
+    private static int validateCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(format("Capacity should be at least 1, was %d", capacity));
+        }
+        return capacity;
+    }
+
+    private static class Ring {
+        private int capacity;
+
+        private LogItem[] items = new LogItem[0];
+
+        private long[] sequences = new long[0];
+
+        private int size;
+
+        private int start;
+
+        Ring(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return true if the oldest log item was dropped to make room
+         */
+        boolean add(LogItem logItem, long sequence) {
+            if (size == items.length && size < capacity) {
+                grow();
+            }
+            if (size < items.length) {
+                int index = (start + size) % items.length;
+                items[index] = logItem;
+                sequences[index] = sequence;
+                size++;
+                return false;
+            }
+            items[start] = logItem;
+            sequences[start] = sequence;
+            start = (start + 1) % items.length;
+            return true;
+        }
+
+        void clear() {
+            Arrays.fill(items, null);
+            size = 0;
+            start = 0;
+        }
+
+        LogItem itemAt(int position) {
+            return items[(start + position) % items.length];
+        }
+
+        /**
+         * @return position of the log item with the given sequence number, or -1 if not retained
+         */
+        int positionOf(long sequence) {
+            // binary search, since the sequence numbers increase with the position
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long middleSequence = sequenceAt(middle);
+                if (middleSequence < sequence) {
+                    low = middle + 1;
+                } else if (middleSequence > sequence) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        long sequenceAt(int position) {
+            return sequences[(start + position) % items.length];
+        }
+
+        /**
+         * @return number of log items that were dropped to meet the new capacity
+         */
+        int setCapacity(int capacity) {
+            // keep the newest log items only, in order, starting at the beginning of the arrays
+            int retained = Math.min(size, capacity);
+            int dropped = size - retained;
+            LogItem[] newItems = new LogItem[Math.min(capacity, Math.max(retained, INITIAL_CAPACITY))];
+            long[] newSequences = new long[newItems.length];
+            for (int i = 0; i < retained; i++) {
+                newItems[i] = itemAt(size - retained + i);
+                newSequences[i] = sequenceAt(size - retained + i);
+            }
+            this.capacity = capacity;
+            items = newItems;
+            sequences = newSequences;
+            size = retained;
+            start = 0;
+            return dropped;
+        }
+
+        private void grow() {
+            long doubled = Math.max(INITIAL_CAPACITY, 2L * items.length);
+            int newLength = (int) Math.min(doubled, capacity);
+            LogItem[] newItems = new LogItem[newLength];
+            long[] newSequences = new long[newLength];
+            for (int i = 0; i < size; i++) {
+                newItems[i] = itemAt(i);
+                newSequences[i] = sequenceAt(i);
+            }
+            items = newItems;
+            sequences = newSequences;
+            start = 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package testlog.history;
+
+import testlog.LogItem;
+
+import java.io.Closeable;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * History of the log items that were captured by a log asserter, used to explain a failure
+ */
+public interface History extends Closeable {
+    /**
+     * Add a log item to the history.
+     *
+     * @param logItem log item to add
+     */
+    void add(LogItem logItem);
+
+    /**
+     * Forget all log items, including the count of dropped log items.
+     */
+    void clear();
+
+    /**
+     * Release what the history holds besides memory, like files. A log asserter closes its history upon tear down, and
+     * when the history is replaced.
+     */
+    @Override
+    default void close() {
+        ; // nothing to release by default
+    }
+
+    /**
+     * Visit the retained log items in the order in which they were added.
+     *
+     * @param visitor visitor that receives each log item with its (one based) sequence number; gaps in the sequence
+     *                numbers indicate dropped log items
+     */
+    void forEach(ObjLongConsumer<LogItem> visitor);
+
+    /**
+     * Get a retained log item by its sequence number. By default this visits the log items until it is found, which
+     * histories that support random access improve upon.
+     *
+     * @param sequence sequence number of the log item, as handed to the visitor of {@link #forEach(ObjLongConsumer)}
+     * @return the log item, or null if it is not retained
+     */
+    default LogItem get(long sequence) {
+        LogItem[] found = new LogItem[1];
+        forEach((logItem, itemSequence) -> {
+            if (itemSequence == sequence) {
+                found[0] = logItem;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * @return number of log items that were added but are no longer retained
+     */
+    long getDroppedCount();
+
+    /**
+     * @return number of log items that are retained
+     */
+    int size();
+}
@@ -0,0 +1,127 @@
+package testlog.history;
+
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Read-only query of the log items that an {@link IndexedHistory} retains. Every narrowing returns a new query, so that
+ * queries can be reused. Levels and loggers are looked up in the indexes of the history, so that only the messages of
+ * the log items of these levels and loggers are visited
+ */
+public class HistoryQuery {
+    private final IndexedHistory history;
+
+    private final Level[] levels;
+
+    private final String loggerName;
+
+    private final String messagePart;
+
+    HistoryQuery(IndexedHistory history) {
+        this(history, null, null, null);
+    }
+
+    private HistoryQuery(IndexedHistory history, Level[] levels, String loggerName, String messagePart) {
+        this.history = history;
+        this.levels = levels;
+        this.loggerName = loggerName;
+        this.messagePart = messagePart;
+    }
+
+    /**
+     * Count the matching log items.
+     *
+     * @return number of log items that match
+     */
+    public int count() {
+        if (messagePart == null && history.getDroppedCount() == 0) {
+            // all selected log items are retained, so there is no need to visit them
+            long[] sequences = history.select(levels, loggerName);
+            return sequences == null ? history.size() : sequences.length;
+        }
+        int[] count = new int[1];
+        visit(logItem -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Narrow down to log items of the given levels.
+     *
+     * @param levels levels to match
+     * @return narrowed query
+     */
+    public HistoryQuery level(Level... levels) {
+        EnumSet<Level> selected = EnumSet.noneOf(Level.class);
+        selected.addAll(asList(levels));
+        if (this.levels != null) {
+            selected.retainAll(asList(this.levels));
+        }
+        return new HistoryQuery(history, selected.toArray(new Level[0]), loggerName, messagePart);
+    }
+
+    /**
+     * List the matching log items.
+     *
+     * @return log items that match, in the order in which they were logged
+     */
+    public List<LogItem> list() {
+        List<LogItem> logItems = new ArrayList<>();
+        visit(logItems::add);
+        return logItems;
+    }
+
+    /**
+     * Narrow down to log items of the given logger, or of its descendants. For instance {@code com.acme} matches the
+     * loggers {@code com.acme} and {@code com.acme.billing}, but not {@code com.acmesoft}.
+     *
+     * @param loggerName name of the logger to match
+     * @return narrowed query, which replaces the logger name that was queried before, if any
+     */
+    public HistoryQuery logger(String loggerName) {
+        return new HistoryQuery(history, levels, loggerName, messagePart);
+    }
+
+    /**
+     * Narrow down to log items with a message that contains the given text.
+     *
+     * @param messagePart text that the message should contain
+     * @return narrowed query, which replaces the text that was queried before, if any
+     */
+    public HistoryQuery messageContains(String messagePart) {
+        return new HistoryQuery(history, levels, loggerName, messagePart);
+    }
+
+    private boolean matchesMessage(LogItem logItem) {
+        if (messagePart == null) {
+            return true;
+        }
+        String message = logItem.getMessage();
+        return message != null && message.contains(messagePart);
+    }
+
+    private void visit(Consumer<LogItem> consumer) {
+        long[] sequences = history.select(levels, loggerName);
+        if (sequences == null) {
+            history.forEach((logItem, sequence) -> {
+                if (matchesMessage(logItem)) {
+                    consumer.accept(logItem);
+                }
+            });
+            return;
+        }
+        for (long sequence : sequences) {
+            // the history may no longer retain the log item
+            LogItem logItem = history.get(sequence);
+            if (logItem != null && matchesMessage(logItem)) {
+                consumer.accept(logItem);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package testlog.history;
+
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * History that indexes the log items of another history by level and by logger name, as these are added, so that
+ * {@link HistoryQuery queries} only visit the log items of the levels and loggers that they ask for. The index holds
+ * the sequence numbers of the log items only, and is rebuilt from the other history once it drops more log items than
+ * it retains, so that the index stays in proportion to what the other history retains
+ */
+public class IndexedHistory implements History {
+    private final History history;
+
+    private final Postings[] levelPostings = new Postings[Level.values().length];
+
+    private final NavigableMap<String, Postings> loggerPostings = new TreeMap<>();
+
+    private long indexedDroppedCount;
+
+    private long sequence;
+
+    /**
+     * Constructor.
+     *
+     * @param history history to index, which should number its log items in the order in which they are added, starting
+     *                at one after it is cleared, like the histories of this package do
+     */
+    public IndexedHistory(History history) {
+        this.history = history;
+        for (Level level : Level.values()) {
+            levelPostings[level.ordinal()] = new Postings();
+        }
+    }
+
+    @Override
+    public synchronized void add(LogItem logItem) {
+        history.add(logItem);
+        sequence++;
+        index(logItem, sequence);
+        if (history.getDroppedCount() - indexedDroppedCount > history.size()) {
+            reindex();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        history.clear();
+        for (Postings postings : levelPostings) {
+            postings.clear();
+        }
+        loggerPostings.clear();
+        indexedDroppedCount = 0;
+        sequence = 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        clear();
+        history.close();
+    }
+
+    @Override
+    public void forEach(ObjLongConsumer<LogItem> visitor) {
+        history.forEach(visitor);
+    }
+
+    @Override
+    public LogItem get(long sequence) {
+        return history.get(sequence);
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return history.getDroppedCount();
+    }
+
+    /**
+     * Query the log items that the history retains.
+     *
+     * @return query that matches all log items, to be narrowed down
+     */
+    public HistoryQuery query() {
+        return new HistoryQuery(this);
+    }
+
+    @Override
+    public int size() {
+        return history.size();
+    }
+
+    /**
+     * Select the sequence numbers of the log items of the given levels and logger, including its descendants.
+     *
+     * @param levels     levels to select, or null for all levels
+     * @param loggerName name of the logger to select, or null for all loggers
+     * @return selected sequence numbers in ascending order, or null if all log items are selected
+     */
+    synchronized long[] select(Level[] levels, String loggerName) {
+        long[] levelSequences = null;
+        if (levels != null) {
+            List<Postings> selected = new ArrayList<>();
+            for (Level level : levels) {
+                selected.add(levelPostings[level.ordinal()]);
+            }
+            levelSequences = union(selected);
+        }
+        if (loggerName == null) {
+            return levelSequences;
+        }
+
+        // the logger itself, and its descendants, of which the names sort right after the name with a dot
+        List<Postings> selected = new ArrayList<>();
+        String key = getLoggerKey(loggerName);
+        if (loggerPostings.containsKey(key)) {
+            selected.add(loggerPostings.get(key));
+        }
+        Map<String, Postings> descendants = key.isEmpty()
+                ? loggerPostings.tailMap(key, false)
+                : loggerPostings.subMap(key + '.', true, key + (char) ('.' + 1), false);
+        selected.addAll(descendants.values());
+        long[] loggerSequences = union(selected);
+        return levelSequences == null ? loggerSequences : intersect(levelSequences, loggerSequences);
+    }
+
+    private void index(LogItem logItem, long sequence) {
+        levelPostings[logItem.getLevel().ordinal()].add(sequence);
+        loggerPostings.computeIfAbsent(getLoggerKey(logItem.getLoggerName()), loggerName -> new Postings())
+                .add(sequence);
+    }
+
+    private void reindex() {
+        // the postings of the dropped log items are forgotten, by indexing what the history retains from scratch
+        for (Postings postings : levelPostings) {
+            postings.clear();
+        }
+        loggerPostings.clear();
+        history.forEach(this::index);
+        indexedDroppedCount = history.getDroppedCount();
+    }
+
+    private static String getLoggerKey(String loggerName) {
+        // the root logger, and log items of which the logger is not known
+        return loggerName == null ? "" : loggerName;
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] intersection = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int leftIndex = 0;
+        int rightIndex = 0;
+        while (leftIndex < left.length && rightIndex < right.length) {
+            if (left[leftIndex] < right[rightIndex]) {
+                leftIndex++;
+            } else if (left[leftIndex] > right[rightIndex]) {
+                rightIndex++;
+            } else {
+                intersection[size++] = left[leftIndex];
+                leftIndex++;
+                rightIndex++;
+            }
+        }
+        return Arrays.copyOf(intersection, size);
+    }
+
+    private static long[] union(List<Postings> selected) {
+        int size = 0;
+        for (Postings postings : selected) {
+            size += postings.size;
+        }
+        long[] union = new long[size];
+        int position = 0;
+        for (Postings postings : selected) {
+            System.arraycopy(postings.sequences, 0, union, position, postings.size);
+            position += postings.size;
+        }
+        // a log item is in one posting list of the selected levels or loggers at most
+        if (selected.size() > 1) {
+            Arrays.sort(union);
+        }
+        return union;
+    }
+
+    /**
+     * Sequence numbers of the log items of one level or logger, in ascending order
+     */
+    private static class Postings {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] sequences = new long[INITIAL_CAPACITY];
+
+        private int size;
+
+        void add(long sequence) {
+            if (size == sequences.length) {
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            sequences[size++] = sequence;
+        }
+
+        void clear() {
+            sequences = new long[INITIAL_CAPACITY];
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package testlog.history;
+
+import org.slf4j.event.Level;
+import testlog.LogContext;
+import testlog.LogItem;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+
+/**
+ * History that retains every log item, like {@link UnboundedHistory}, but only keeps a limited number of log items on
+ * the heap. Beyond that, log items are appended to a memory-mapped temporary file, in a compact binary layout, and read
+ * back through the mapping, also by sequence number. Messages are rendered when they are written to the file, and the
+ * MDC and markers are not kept. Logger and thread names are kept on the heap once each, and so are throwables, since
+ * these cannot be restored from a file. The file is unmapped and deleted when the history is closed, which a log
+ * asserter does upon tear down. Unmapping takes internal API of the JDK; where that is not available, the mapping
+ * lasts until garbage collection, and so does the file on Windows, where a mapped file cannot be deleted
+ */
+public class SpillingHistory implements History {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // level (1 byte), index of the logger name, of the thread name and of the throwable, each -1 if null (4 bytes),
+    // timestamp (8 bytes), length of the message or -1 (4 bytes)
+    private static final int HEADER_SIZE = 25;
+
+    private static final Level[] LEVELS = Level.values();
+
+    private static final int REGION_SIZE = 1 << 24;
+
+    private final Path directory;
+
+    private final int heapCapacity;
+
+    private final List<LogItem> heapItems = new ArrayList<>();
+
+    private final Map<String, Integer> nameIndexes = new HashMap<>();
+
+    // each logger and thread name once, since these repeat a lot
+    private final List<String> names = new ArrayList<>();
+
+    // mapped regions of the file, of which only duplicates that do not outlive a method call are handed out
+    private final List<ByteBuffer> regions = new ArrayList<>();
+
+    private final List<Throwable> throwables = new ArrayList<>();
+
+    private FileChannel channel;
+
+    private Path file;
+
+    // region index (high 32 bits) and position (low 32 bits) of each spilled log item
+    private long[] offsets = new long[INITIAL_CAPACITY];
+
+    private int regionIndex;
+
+    private int size;
+
+    /**
+     * Constructor, spilling to the default temporary directory.
+     *
+     * @param heapCapacity number of log items to keep on the heap, before spilling to the file
+     */
+    public SpillingHistory(int heapCapacity) {
+        this(heapCapacity, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param heapCapacity number of log items to keep on the heap, before spilling to the file
+     * @param directory    directory to create the file in, or null for the default temporary directory
+     */
+    public SpillingHistory(int heapCapacity, Path directory) {
+        if (heapCapacity < 0) {
+            throw new IllegalArgumentException(format("Heap capacity should not be negative, was %d", heapCapacity));
+        }
+        this.heapCapacity = heapCapacity;
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized void add(LogItem logItem) {
+        if (heapItems.size() < heapCapacity) {
+            heapItems.add(logItem);
+        } else {
+            spill(logItem);
+        }
+        size++;
+    }
+
+    @Override
+    public synchronized void clear() {
+        heapItems.clear();
+        nameIndexes.clear();
+        names.clear();
+        throwables.clear();
+        // keep the file and its mappings, to be overwritten from the start
+        for (ByteBuffer region : regions) {
+            region.clear();
+        }
+        regionIndex = 0;
+        size = 0;
+    }
+
+    /**
+     * Forget all log items, and delete the file. The history can still be used after this, with a new file.
+     */
+    @Override
+    public synchronized void close() {
+        clear();
+        offsets = new long[INITIAL_CAPACITY];
+        for (ByteBuffer region : regions) {
+            unmap(region);
+        }
+        regions.clear();
+        if (channel != null) {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new RuntimeException(format("could not delete the history file %s", file), e);
+            } finally {
+                channel = null;
+                file = null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void forEach(ObjLongConsumer<LogItem> visitor) {
+        long sequence = 0;
+        for (LogItem logItem : heapItems) {
+            visitor.accept(logItem, ++sequence);
+        }
+        for (ByteBuffer region : regions) {
+            ByteBuffer reader = region.duplicate();
+            reader.flip();
+            while (reader.hasRemaining()) {
+                visitor.accept(read(reader), ++sequence);
+            }
+        }
+    }
+
+    @Override
+    public synchronized LogItem get(long sequence) {
+        if (sequence < 1 || sequence > size) {
+            return null;
+        }
+        if (sequence <= heapItems.size()) {
+            return heapItems.get((int) sequence - 1);
+        }
+        long offset = offsets[(int) (sequence - heapItems.size() - 1)];
+        ByteBuffer reader = regions.get((int) (offset >>> 32)).duplicate();
+        reader.position((int) offset);
+        return read(reader);
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return 0;
+    }
+
+    /**
+     * @return number of log items that are kept in the file, rather than on the heap
+     */
+    public synchronized int getSpilledCount() {
+        return size - heapItems.size();
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    private String getName(int nameIndex) {
+        return nameIndex < 0 ? null : names.get(nameIndex);
+    }
+
+    private int getNameIndex(String name) {
+        if (name == null) {
+            return -1;
+        }
+        return nameIndexes.computeIfAbsent(name, newName -> {
+            names.add(newName);
+            return names.size() - 1;
+        });
+    }
+
+    private ByteBuffer getRegion(int recordSize) throws IOException {
+        // regions are filled in order, and a region that is too small for the record is left empty
+        while (regionIndex < regions.size()) {
+            ByteBuffer region = regions.get(regionIndex);
+            if (region.remaining() >= recordSize) {
+                return region;
+            }
+            regionIndex++;
+        }
+        if (channel == null) {
+            file = directory == null
+                    ? Files.createTempFile("testlog-history", ".bin")
+                    : Files.createTempFile(directory, "testlog-history", ".bin");
+            channel = FileChannel.open(file, READ, WRITE);
+        }
+        long offset = 0;
+        for (ByteBuffer region : regions) {
+            offset += region.capacity();
+        }
+        ByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, offset, Math.max(REGION_SIZE, recordSize));
+        regions.add(region);
+        return region;
+    }
+
+    private LogItem read(ByteBuffer reader) {
+        Level level = LEVELS[reader.get()];
+        int loggerNameIndex = reader.getInt();
+        int threadNameIndex = reader.getInt();
+        int throwableIndex = reader.getInt();
+        long timestamp = reader.getLong();
+        int messageLength = reader.getInt();
+        String message = null;
+        if (messageLength >= 0) {
+            byte[] bytes = new byte[messageLength];
+            reader.get(bytes);
+            message = new String(bytes, UTF_8);
+        }
+        String renderedMessage = message;
+        return new LogItem(level, getName(loggerNameIndex), () -> renderedMessage,
+                throwableIndex < 0 ? null : throwables.get(throwableIndex),
+                new SpilledContext(getName(threadNameIndex), timestamp));
+    }
+
+    private void spill(LogItem logItem) {
+        String message = logItem.getMessage();
+        byte[] bytes = message == null ? null : message.getBytes(UTF_8);
+        int throwableIndex = -1;
+        if (logItem.getThrowable() != null) {
+            throwableIndex = throwables.size();
+            throwables.add(logItem.getThrowable());
+        }
+        try {
+            ByteBuffer region = getRegion(HEADER_SIZE + (bytes == null ? 0 : bytes.length));
+            int spilledCount = size - heapItems.size();
+            if (spilledCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, spilledCount * 2);
+            }
+            offsets[spilledCount] = ((long) regionIndex << 32) | region.position();
+            region.put((byte) logItem.getLevel().ordinal());
+            region.putInt(getNameIndex(logItem.getLoggerName()));
+            region.putInt(getNameIndex(logItem.getThreadName()));
+            region.putInt(throwableIndex);
+            region.putLong(logItem.getTimestamp());
+            region.putInt(bytes == null ? -1 : bytes.length);
+            if (bytes != null) {
+                region.put(bytes);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("could not write to the history file", e);
+        }
+    }
+
+    /**
+     * Unmap the region right away, rather than when it is garbage collected, through the cleaner of the buffer, which
+     * Java 9 and later only expose through {@code sun.misc.Unsafe}. Where neither is accessible, this does nothing.
+     */
+    private static void unmap(ByteBuffer region) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), region);
+        } catch (NoSuchMethodException e) {
+            unmapOnJava8(region);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ; // left to the garbage collector
+        }
+    }
+
+    private static void unmapOnJava8(ByteBuffer region) {
+        try {
+            Method cleanerMethod = region.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(region);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ; // left to the garbage collector
+        }
+    }
+
+    /**
+     * Context of a spilled log item, of which the thread name and the timestamp are kept, but not the MDC and the
+     * markers
+     */
+    private static class SpilledContext implements LogContext {
+        private final String threadName;
+
+        private final long timestamp;
+
+        SpilledContext(String threadName, long timestamp) {
+            this.threadName = threadName;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public List<String> getMarkers() {
+            return emptyList();
+        }
+
+        @Override
+        public Map<String, String> getMdc() {
+            return emptyMap();
+        }
+
+        @Override
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package testlog.history;
+
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * History that retains every log item until it is cleared. This is the default
+ */
+public class UnboundedHistory implements History {
+    private final List<LogItem> logItems = new ArrayList<>();
+
+    @Override
+    public synchronized void add(LogItem logItem) {
+        logItems.add(logItem);
+    }
+
+    @Override
+    public synchronized void clear() {
+        logItems.clear();
+    }
+
+    @Override
+    public synchronized void forEach(ObjLongConsumer<LogItem> visitor) {
+        for (int i = 0; i < logItems.size(); i++) {
+            visitor.accept(logItems.get(i), i + 1);
+        }
+    }
+
+    @Override
+    public synchronized LogItem get(long sequence) {
+        return sequence < 1 || sequence > logItems.size() ? null : logItems.get((int) sequence - 1);
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return logItems.size();
+    }
+}
@@ -0,0 +1,259 @@
+package testlog.impl;
+
+import org.slf4j.event.Level;
+import testlog.history.History;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+/**
+ * JVM-wide metrics of capturing and asserting log events, exposed through JMX as {@value #OBJECT_NAME}, to see from
+ * JConsole or Mission Control whether capturing is what makes tests slow. The metrics are only kept once registered,
+ * either by {@link #register()} or by setting the system property {@value #JMX_PROPERTY} to {@code true}. Until then
+ * counting costs a single volatile read. The counters are striped, so that threads that are logging do not contend
+ */
+public class CaptureMetrics implements CaptureMetricsMXBean {
+    /**
+     * System property that registers the metrics upon first use, if it is {@code true}
+     */
+    public static final String JMX_PROPERTY = "testlog.jmx";
+
+    /**
+     * Name under which the metrics are registered with the platform MBean server
+     */
+    public static final String OBJECT_NAME = "testlog:type=CaptureMetrics";
+
+    private static final Level[] LEVELS = Level.values();
+
+    private static final CaptureMetrics instance = new CaptureMetrics();
+
+    private static volatile boolean enabled;
+
+    private final LongAdder assertWaitNanos = new LongAdder();
+
+    private final LongAdder[][] counters = new LongAdder[Counter.values().length][LEVELS.length];
+
+    // the histories of the log asserters that have not been torn down, weakly, in case they are never torn down
+    private final Set<History> histories = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final LongAdder logNanos = new LongAdder();
+
+    static {
+        if (Boolean.getBoolean(JMX_PROPERTY)) {
+            register();
+        }
+    }
+
+    private CaptureMetrics() {
+        for (LongAdder[] levelCounters : counters) {
+            for (int i = 0; i < levelCounters.length; i++) {
+                levelCounters[i] = new LongAdder();
+            }
+        }
+    }
+
+    @Override
+    public long getAssertWaitNanos() {
+        return assertWaitNanos.sum();
+    }
+
+    @Override
+    public Map<String, Long> getCapturedCounts() {
+        return getCounts(Counter.CAPTURED);
+    }
+
+    @Override
+    public long getHistorySize() {
+        long historySize = 0;
+        synchronized (histories) {
+            for (History history : histories) {
+                historySize += history.size();
+            }
+        }
+        return historySize;
+    }
+
+    @Override
+    public long getLogNanos() {
+        return logNanos.sum();
+    }
+
+    @Override
+    public Map<String, Long> getMatchedCounts() {
+        return getCounts(Counter.MATCHED);
+    }
+
+    @Override
+    public Map<String, Long> getMutedCounts() {
+        return getCounts(Counter.MUTED);
+    }
+
+    @Override
+    public Map<String, Long> getRejectedCounts() {
+        return getCounts(Counter.REJECTED);
+    }
+
+    @Override
+    public Map<String, Long> getSeenCounts() {
+        return getCounts(Counter.SEEN);
+    }
+
+    @Override
+    public void reset() {
+        assertWaitNanos.reset();
+        logNanos.reset();
+        for (LongAdder[] levelCounters : counters) {
+            for (LongAdder counter : levelCounters) {
+                counter.reset();
+            }
+        }
+    }
+
+    private Map<String, Long> getCounts(Counter counter) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Level level : LEVELS) {
+            counts.put(level.toString(), counters[counter.ordinal()][level.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Add time that was spent waiting for expected log events, upon assertion.
+     *
+     * @param nanos time spent, in nanoseconds
+     */
+    public static void addAssertWaitNanos(long nanos) {
+        if (enabled) {
+            instance.assertWaitNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Add time that was spent by a log asserter on a log event.
+     *
+     * @param nanos time spent, in nanoseconds
+     */
+    public static void addLogNanos(long nanos) {
+        if (enabled) {
+            instance.logNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Count a log event.
+     *
+     * @param counter what happened to the log event
+     * @param level   level of the log event
+     */
+    public static void count(Counter counter, Level level) {
+        if (enabled) {
+            instance.counters[counter.ordinal()][level.ordinal()].increment();
+        }
+    }
+
+    /**
+     * @return the metrics, also if these are not registered
+     */
+    public static CaptureMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return true if the metrics are registered, and therefore kept
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Register the metrics with the platform MBean server, and start keeping these. Registering more than once has no
+     * further effect.
+     */
+    public static synchronized void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException exception) {
+            ; // registered before
+        } catch (JMException exception) {
+            throw new RuntimeException(format("failed to register %s", OBJECT_NAME), exception);
+        }
+        enabled = true;
+    }
+
+    /**
+     * Track the size of the history of a log asserter, until it is untracked.
+     *
+     * @param history history to track
+     */
+    public static void trackHistory(History history) {
+        instance.histories.add(history);
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server, and stop keeping these.
+     */
+    public static synchronized void unregister() {
+        enabled = false;
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            mBeanServer.unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (InstanceNotFoundException exception) {
+            ; // not registered
+        } catch (JMException exception) {
+            throw new RuntimeException(format("failed to unregister %s", OBJECT_NAME), exception);
+        }
+    }
+
+    /**
+     * Stop tracking the size of the history of a log asserter.
+     *
+     * @param history history to stop tracking
+     */
+    public static void untrackHistory(History history) {
+        instance.histories.remove(history);
+    }
+
+    /**
+     * What happens to a log event on its way to the log asserters
+     */
+    public enum Counter {
+        /**
+         * Handed to a log asserter
+         */
+        SEEN,
+
+        /**
+         * Captured by a log asserter, at or above its minimum level
+         */
+        CAPTURED,
+
+        /**
+         * Matched the expectations of a log asserter
+         */
+        MATCHED,
+
+        /**
+         * Kept from the appenders, since the log is muted
+         */
+        MUTED,
+
+        /**
+         * Did not match the expectations of a log asserter, which fails it
+         */
+        REJECTED
+    }
+}
@@ -0,0 +1,53 @@
+package testlog.impl;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link CaptureMetrics}. Counts are per level name
+ */
+public interface CaptureMetricsMXBean {
+    /**
+     * @return total time that log asserters waited for expected log events upon assertion, in nanoseconds
+     */
+    long getAssertWaitNanos();
+
+    /**
+     * @return number of log events that log asserters captured, at or above their minimum level
+     */
+    Map<String, Long> getCapturedCounts();
+
+    /**
+     * @return number of log items in the histories of the log asserters that have not been torn down
+     */
+    long getHistorySize();
+
+    /**
+     * @return total time that log asserters spent on log events, in the threads that are logging, in nanoseconds
+     */
+    long getLogNanos();
+
+    /**
+     * @return number of log events that matched the expectations of log asserters
+     */
+    Map<String, Long> getMatchedCounts();
+
+    /**
+     * @return number of log events that were kept from the appenders, since the log was muted
+     */
+    Map<String, Long> getMutedCounts();
+
+    /**
+     * @return number of log events that did not match the expectations of log asserters
+     */
+    Map<String, Long> getRejectedCounts();
+
+    /**
+     * @return number of log events that were handed to log asserters
+     */
+    Map<String, Long> getSeenCounts();
+
+    /**
+     * Reset the counts and times to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,52 @@
+package testlog.impl;
+
+import org.slf4j.event.Level;
+
+/**
+ * Conversion of java.util.logging levels, which may be any integer value, following the thresholds of SLF4J's bridge
+ * handler: up to {@code FINER} is {@code TRACE}, up to {@code FINE} is {@code DEBUG}, up to {@code INFO} is
+ * {@code INFO}, up to {@code WARNING} is {@code WARN}, and anything above is {@code ERROR}. Lookups go through tables
+ * that are computed once, rather than through a chain of comparisons
+ */
+public class JulLevelUtil {
+    private static final int BUCKET_SIZE = 100;
+
+    private static final Level[] levelsByBucket = {
+            Level.TRACE, Level.TRACE, Level.TRACE, Level.TRACE, Level.TRACE, // up to FINER (400)
+            Level.DEBUG, // up to FINE (500)
+            Level.INFO, Level.INFO, Level.INFO, // up to INFO (800)
+            Level.WARN, // up to WARNING (900)
+            Level.ERROR
+    };
+
+    private static final int[] thresholds = new int[Level.values().length];
+
+    static {
+        // the lowest bucket that a level occurs in determines its threshold
+        for (int bucket = levelsByBucket.length - 1; bucket > 0; bucket--) {
+            thresholds[levelsByBucket[bucket].ordinal()] = (bucket - 1) * BUCKET_SIZE + 1;
+        }
+        thresholds[levelsByBucket[0].ordinal()] = Integer.MIN_VALUE;
+    }
+
+    public static Level convertLevel(java.util.logging.Level level) {
+        return levelsByBucket[getBucket(level.intValue())];
+    }
+
+    /**
+     * Get the lowest java.util.logging level value that converts to the given level or to a higher level.
+     *
+     * @param level level to get the threshold for
+     * @return lowest level value that is at least the given level
+     */
+    public static int getThreshold(Level level) {
+        return thresholds[level.ordinal()];
+    }
+
+    private static int getBucket(int value) {
+        if (value <= 0) {
+            return 0;
+        }
+        return (int) Math.min(levelsByBucket.length - 1, ((long) value + BUCKET_SIZE - 1) / BUCKET_SIZE);
+    }
+}
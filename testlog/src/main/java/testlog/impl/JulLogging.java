@@ -0,0 +1,255 @@
+package testlog.impl;
+
+import org.slf4j.MDC;
+import org.slf4j.helpers.BasicMDCAdapter;
+import org.slf4j.spi.MDCAdapter;
+import testlog.CaptureScope;
+import testlog.LogContext;
+import testlog.LogItem;
+import testlog.impl.CaptureMetrics.Counter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Filter;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Logging through java.util.logging. Muting only filters the handlers of the root logger, or detaches those that do not
+ * consult their filter, so that the configuration of the {@link java.util.logging.LogManager} (levels, handlers of
+ * other loggers) stays as it is
+ */
+class JulLogging implements Logging {
+    // handlers of the root logger that do not consult the mute filter, which are detached from it while muted
+    private static final List<Handler> detachedHandlers = new CopyOnWriteArrayList<>();
+
+    private static final Formatter messageFormatter = new SimpleFormatter();
+
+    private static final LogDispatcher dispatcher = new LogDispatcher();
+
+    private static final Handler dispatcherHandler = new CallbackHandler(dispatcher);
+
+    private static final MuteSwitch muteSwitch = new MuteSwitch();
+
+    private static final ReplayBuffers<LogRecord> replayBuffers = new ReplayBuffers<>(
+            record -> ReplayBuffers.estimateLength(record.getMessage(), record.getParameters()), JulLogging::replay);
+
+    @Override
+    public void deregisterCallback(LogCallback logCallback) {
+        dispatcher.remove(logCallback);
+    }
+
+    @Override
+    public void mute() {
+        if (muteSwitch.hold()) {
+            applyMuteSwitch();
+        }
+    }
+
+    @Override
+    public ReplayBuffer openReplayBuffer(long capacity, CaptureScope scope) {
+        // the handler of the dispatcher receives the records that are muted
+        installHandler();
+        return replayBuffers.open(capacity, scope);
+    }
+
+    @Override
+    public void registerCallback(LogCallback logCallback) {
+        installHandler();
+        dispatcher.add(logCallback);
+    }
+
+    @Override
+    public void unmute() {
+        if (muteSwitch.release()) {
+            applyMuteSwitch();
+        }
+    }
+
+    /**
+     * Mute the handlers of the root logger, other than the handler of the dispatcher, or unmute them, after the state
+     * of the mute switch, which muters may hold and release concurrently. A handler that consults its filter gets a
+     * mute filter in front of the filter that it may already have, once, after which muting it is only a matter of
+     * flipping the mute switch. Any other handler is detached from the root logger while muted, and attached again
+     * when unmuted
+     */
+    private static synchronized void applyMuteSwitch() {
+        Logger rootLogger = getRootLogger();
+        if (!muteSwitch.isHeld()) {
+            for (Handler handler : detachedHandlers) {
+                rootLogger.addHandler(handler);
+            }
+            detachedHandlers.clear();
+            return;
+        }
+
+        for (Handler handler : rootLogger.getHandlers()) {
+            if (handler == dispatcherHandler || handler.getFilter() instanceof MuteFilter) {
+                continue;
+            }
+            if (consultsFilter(handler)) {
+                handler.setFilter(new MuteFilter(handler.getFilter()));
+            } else {
+                detachedHandlers.add(handler);
+                rootLogger.removeHandler(handler);
+            }
+        }
+    }
+
+    /**
+     * Tell whether the handler consults its filter, which the handlers of java.util.logging do, but a handler of
+     * elsewhere need not
+     */
+    private static boolean consultsFilter(Handler handler) {
+        try {
+            return handler.getClass().getMethod("publish", LogRecord.class).getDeclaringClass().getName()
+                    .startsWith("java.util.logging.");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e); // every handler has it
+        }
+    }
+
+    private static Logger getRootLogger() {
+        return Logger.getLogger("");
+    }
+
+    /**
+     * Install the handler of the dispatcher, once, or again after the log manager was reset
+     */
+    private static synchronized void installHandler() {
+        Logger rootLogger = getRootLogger();
+        if (!asList(rootLogger.getHandlers()).contains(dispatcherHandler)) {
+            rootLogger.addHandler(dispatcherHandler);
+        }
+    }
+
+    private static void replay(LogRecord record) {
+        muteSwitch.bypass(() -> {
+            for (Handler handler : getRootLogger().getHandlers()) {
+                if (handler != dispatcherHandler) {
+                    handler.publish(record);
+                }
+            }
+            for (Handler handler : detachedHandlers) {
+                handler.publish(record);
+            }
+        });
+    }
+
+    /**
+     * Handler that hands the records to the callback, and to the replay buffers while muted. Records below the minimum
+     * level of the callback are rejected with a single comparison of the level values, before any log item is built
+     */
+    private static class CallbackHandler extends Handler {
+        private final LogCallback logCallback;
+
+        CallbackHandler(LogCallback logCallback) {
+            this.logCallback = logCallback;
+        }
+
+        @Override
+        public void close() {
+            ; // nothing to close
+        }
+
+        @Override
+        public void flush() {
+            ; // nothing to flush
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            if (CaptureMetrics.isEnabled() && muteSwitch.isMuted()) {
+                CaptureMetrics.count(Counter.MUTED, JulLevelUtil.convertLevel(record.getLevel()));
+            }
+            if (!replayBuffers.isEmpty() && muteSwitch.isMuted()) {
+                replayBuffers.add(record);
+            }
+            int levelValue = record.getLevel().intValue();
+            if (levelValue < JulLevelUtil.getThreshold(logCallback.getMinimumLevel())) {
+                return;
+            }
+            logCallback.log(new LogItem(JulLevelUtil.convertLevel(record.getLevel()), record.getLoggerName(),
+                    () -> messageFormatter.formatMessage(record), record.getThrown(), new RecordContext(record)));
+        }
+    }
+
+    /**
+     * Filter that rejects all records while muted, and otherwise leaves the decision to the filter that the handler had
+     * before, if any
+     */
+    private static class MuteFilter implements Filter {
+        private final Filter filter;
+
+        MuteFilter(Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean isLoggable(LogRecord record) {
+            return !muteSwitch.isMuted() && (filter == null || filter.isLoggable(record));
+        }
+    }
+
+    /**
+     * Context of a record. The handlers run on the thread that is logging, so that is the thread of the record.
+     * java.util.logging has no markers and no MDC, but SLF4J keeps one for it, of which a non-empty one is copied right
+     * away. That copy cannot be deferred: the basic MDC adapter of SLF4J changes the map of a thread in place, and only
+     * hands out copies of it, so there is no cheaper snapshot to take
+     */
+    private static class RecordContext implements LogContext {
+        private final Map<String, String> mdc;
+
+        private final LogRecord record;
+
+        private final String threadName;
+
+        RecordContext(LogRecord record) {
+            this.mdc = copyMdc();
+            this.record = record;
+            this.threadName = Thread.currentThread().getName();
+        }
+
+        @Override
+        public List<String> getMarkers() {
+            return emptyList();
+        }
+
+        @Override
+        public Map<String, String> getMdc() {
+            return mdc;
+        }
+
+        @Override
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return record.getMillis();
+        }
+
+        private static Map<String, String> copyMdc() {
+            MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+            if (mdcAdapter instanceof BasicMDCAdapter) {
+                Set<String> keys = ((BasicMDCAdapter) mdcAdapter).getKeys();
+                if (keys == null || keys.isEmpty()) {
+                    return emptyMap();
+                }
+            }
+            Map<String, String> mdc = mdcAdapter.getCopyOfContextMap();
+            return mdc == null ? emptyMap() : unmodifiableMap(mdc);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package testlog.impl;
+
+/**
+ * Provider of logging through java.util.logging, when SLF4J is bound to it
+ */
+public class JulLoggingProvider implements LoggingProvider {
+    @Override
+    public Logging createLogging() {
+        return new JulLogging();
+    }
+
+    @Override
+    public int getPriority() {
+        return 200;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return LoggingFactory.hasJul();
+    }
+}
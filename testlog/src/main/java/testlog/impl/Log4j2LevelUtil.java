@@ -0,0 +1,25 @@
+package testlog.impl;
+
+import org.slf4j.event.Level;
+
+/**
+ * Conversion of Log4j 2 levels, which may be custom levels of any integer value, by the standard level that they are
+ * at least as specific as: up to {@code ERROR}, which includes {@code FATAL} and {@code OFF}, is {@code ERROR}, up to
+ * {@code WARN} is {@code WARN}, up to {@code INFO} is {@code INFO}, up to {@code DEBUG} is {@code DEBUG}, and anything
+ * beyond is {@code TRACE}
+ */
+public class Log4j2LevelUtil {
+    public static Level convertLevel(org.apache.logging.log4j.Level level) {
+        int intLevel = level.intLevel();
+        if (intLevel <= org.apache.logging.log4j.Level.ERROR.intLevel()) {
+            return Level.ERROR;
+        } else if (intLevel <= org.apache.logging.log4j.Level.WARN.intLevel()) {
+            return Level.WARN;
+        } else if (intLevel <= org.apache.logging.log4j.Level.INFO.intLevel()) {
+            return Level.INFO;
+        } else if (intLevel <= org.apache.logging.log4j.Level.DEBUG.intLevel()) {
+            return Level.DEBUG;
+        }
+        return Level.TRACE;
+    }
+}
@@ -0,0 +1,320 @@
+package testlog.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.filter.Filterable;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableParameterizedMessage;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.slf4j.event.Level;
+import testlog.CaptureScope;
+import testlog.LogContext;
+import testlog.LogItem;
+import testlog.impl.CaptureMetrics.Counter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+class Log4j2Logging implements Logging {
+    // whether the thread is appending to the appender of the dispatcher, per thread
+    private static final ThreadLocal<boolean[]> appending = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    private static final LogDispatcher dispatcher = new LogDispatcher();
+
+    private static final Appender dispatcherAppender = new CallbackAppender("testlog", dispatcher);
+
+    private static final MuteSwitch muteSwitch = new MuteSwitch();
+
+    private static final ReentryFilter reentryFilter = new ReentryFilter();
+
+    private static final ReplayBuffers<LogEvent> replayBuffers = new ReplayBuffers<>(
+            event -> ReplayBuffers.estimateLength(event.getMessage().getFormat(), event.getMessage().getParameters()),
+            Log4j2Logging::replay);
+
+    private static LoggerConfig filteredRootLoggerConfig;
+
+    @Override
+    public void deregisterCallback(LogCallback logCallback) {
+        dispatcher.remove(logCallback);
+    }
+
+    @Override
+    public void mute() {
+        if (muteSwitch.hold()) {
+            installMuteFilter();
+        }
+    }
+
+    @Override
+    public ReplayBuffer openReplayBuffer(long capacity, CaptureScope scope) {
+        // the appender of the dispatcher receives the log events that are muted
+        installAppender();
+        return replayBuffers.open(capacity, scope);
+    }
+
+    @Override
+    public void registerCallback(LogCallback logCallback) {
+        installAppender();
+        dispatcher.add(logCallback);
+    }
+
+    @Override
+    public void unmute() {
+        muteSwitch.release();
+    }
+
+    private static LoggerConfig getRootLoggerConfig() {
+        LoggerContext loggerContext = (LoggerContext) LogManager.getContext(false);
+        return loggerContext.getConfiguration().getRootLogger();
+    }
+
+    /**
+     * Install the appender of the dispatcher, once, or again after Log4j was reconfigured
+     */
+    private static synchronized void installAppender() {
+        LoggerConfig rootLoggerConfig = getRootLoggerConfig();
+        if (rootLoggerConfig.getAppenders().get(dispatcherAppender.getName()) != dispatcherAppender) {
+            if (!dispatcherAppender.isStarted()) {
+                dispatcherAppender.start();
+            }
+            if (!reentryFilter.isStarted()) {
+                reentryFilter.start();
+            }
+            rootLoggerConfig.addAppender(dispatcherAppender, null, reentryFilter);
+        }
+    }
+
+    /**
+     * Install the mute filter as the filter of the root logger, wrapped around the filter that it may already have.
+     * This leaves the appender references of the root logger alone, and only changes it once, or again after Log4j
+     * was reconfigured
+     */
+    private static synchronized void installMuteFilter() {
+        LoggerConfig rootLoggerConfig = getRootLoggerConfig();
+        if (rootLoggerConfig == filteredRootLoggerConfig) {
+            return;
+        }
+        Filter filter = rootLoggerConfig.getFilter();
+        if (!(filter instanceof MuteFilter)) {
+            MuteFilter muteFilter = new MuteFilter(filter);
+            muteFilter.start();
+            if (filter != null) {
+                rootLoggerConfig.removeFilter(filter);
+            }
+            rootLoggerConfig.addFilter(muteFilter);
+        }
+        filteredRootLoggerConfig = rootLoggerConfig;
+    }
+
+    /**
+     * Write the log event to the appenders of the root logger, other than the appender of the dispatcher. This leaves
+     * out the filters of the root logger, among which the mute filter, and of the appender references, but not those
+     * of the appenders themselves
+     */
+    private static void replay(LogEvent event) {
+        for (Appender appender : getRootLoggerConfig().getAppenders().values()) {
+            if (appender != dispatcherAppender
+                    && !(appender instanceof Filterable && ((Filterable) appender).isFiltered(event))) {
+                appender.append(event);
+            }
+        }
+    }
+
+    /**
+     * Appender that hands the events to the callback, and to the replay buffers while muted. The events may be mutable
+     * events that Log4j reuses for the next log event, so rather than taking an immutable snapshot of each event, it
+     * only copies what the log item needs, and keeps rendering the message lazy where that is safe. Events below the
+     * minimum level of the callback are skipped before anything is allocated, but each captured event still gets a log
+     * item and a context, and each muted event an immutable snapshot while the replay buffers are open
+     */
+    private static class CallbackAppender extends AbstractAppender {
+        private final LogCallback logCallback;
+
+        CallbackAppender(String name, LogCallback logCallback) {
+            super(name, null, null, true, Property.EMPTY_ARRAY);
+            this.logCallback = logCallback;
+        }
+
+        @Override
+        public void append(LogEvent event) {
+            boolean[] appendingFlag = appending.get();
+            appendingFlag[0] = true;
+            try {
+                appendUnguarded(event);
+            } finally {
+                appendingFlag[0] = false;
+            }
+        }
+
+        private void appendUnguarded(LogEvent event) {
+            Level level = Log4j2LevelUtil.convertLevel(event.getLevel());
+            if (CaptureMetrics.isEnabled() && muteSwitch.isMuted()) {
+                CaptureMetrics.count(Counter.MUTED, level);
+            }
+            if (!replayBuffers.isEmpty() && muteSwitch.isMuted()) {
+                replayBuffers.add(event.toImmutable());
+            }
+            if (level.toInt() < logCallback.getMinimumLevel().toInt()) {
+                return;
+            }
+            logCallback.log(new LogItem(level, event.getLoggerName(), renderMessageLater(event.getMessage()),
+                    event.getThrown(), new EventContext(event)));
+        }
+
+        private static Supplier<String> renderMessageLater(Message message) {
+            if (!(message instanceof ReusableMessage)) {
+                return message::getFormattedMessage;
+            }
+
+            // a reusable message is overwritten by the next log event on this thread, so hold on to its parts instead,
+            // which only a parameterized message is made of; other messages, like object messages, are rendered now
+            Object[] parameters = message.getParameters();
+            if (!(message instanceof ReusableParameterizedMessage) || parameters == null || parameters.length == 0) {
+                String formattedMessage = message.getFormattedMessage();
+                return () -> formattedMessage;
+            }
+            String messagePattern = message.getFormat();
+            return () -> ParameterizedMessage.format(messagePattern, parameters);
+        }
+    }
+
+    /**
+     * Context of a log event. It holds on to the parts of the event, since the event itself may be reused. The context
+     * data of such a mutable event is reused too, so that is copied right away if it is not empty, and not referred to
+     * at all if it is, while the context data of an immutable event is only converted when it is asked for
+     */
+    private static class EventContext implements LogContext {
+        private static final ReadOnlyStringMap EMPTY_CONTEXT_DATA = createEmptyContextData();
+
+        private final ReadOnlyStringMap contextData;
+
+        private final Marker marker;
+
+        private final String threadName;
+
+        private final long timestamp;
+
+        EventContext(LogEvent event) {
+            ReadOnlyStringMap eventContextData = event.getContextData();
+            if (event instanceof Log4jLogEvent) {
+                this.contextData = eventContextData;
+            } else {
+                // the context data of a mutable event is refilled for the next log event, even if it is empty now
+                this.contextData = eventContextData.isEmpty()
+                        ? EMPTY_CONTEXT_DATA
+                        : new SortedArrayStringMap(eventContextData);
+            }
+            this.marker = event.getMarker();
+            this.threadName = event.getThreadName();
+            this.timestamp = event.getTimeMillis();
+        }
+
+        @Override
+        public List<String> getMarkers() {
+            if (marker == null) {
+                return emptyList();
+            }
+            List<String> markerNames = new ArrayList<>();
+            addMarkerNames(marker, markerNames);
+            return unmodifiableList(markerNames);
+        }
+
+        @Override
+        public Map<String, String> getMdc() {
+            return unmodifiableMap(contextData.toMap());
+        }
+
+        @Override
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        private static ReadOnlyStringMap createEmptyContextData() {
+            SortedArrayStringMap contextData = new SortedArrayStringMap(0);
+            contextData.freeze();
+            return contextData;
+        }
+
+        private static void addMarkerNames(Marker marker, List<String> markerNames) {
+            if (markerNames.contains(marker.getName())) {
+                return;
+            }
+            markerNames.add(marker.getName());
+            if (marker.getParents() != null) {
+                for (Marker parent : marker.getParents()) {
+                    addMarkerNames(parent, markerNames);
+                }
+            }
+        }
+    }
+
+    /**
+     * Filter of the reference to the appender of the dispatcher, that denies the log events that are logged while
+     * appending to it, like those that a log asserter logs about the log items it allows. Log4j would otherwise reject
+     * these as recursive calls to the appender, and report each of these as an error
+     */
+    private static class ReentryFilter extends AbstractFilter {
+        @Override
+        public Result filter(LogEvent event) {
+            return appending.get()[0] ? Result.DENY : Result.NEUTRAL;
+        }
+    }
+
+    /**
+     * Filter of the root logger that denies all log events while muted, after the filter that it wraps, and passes on
+     * that filter's result otherwise. Since that keeps the log events from every appender of the root logger, it hands
+     * the events that it denies to the appender of the dispatcher itself, so that these are still captured. Muting is
+     * then only a matter of flipping the mute switch
+     */
+    private static class MuteFilter extends AbstractFilter {
+        private final Filter filter;
+
+        MuteFilter(Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public Result filter(LogEvent event) {
+            Result result = filter == null ? Result.NEUTRAL : filter.filter(event);
+            if (result == Result.DENY || !muteSwitch.isMuted()) {
+                return result;
+            }
+            if (dispatcherAppender.isStarted() && !appending.get()[0]) {
+                dispatcherAppender.append(event);
+            }
+            return Result.DENY;
+        }
+
+        @Override
+        public boolean stop(long timeout, TimeUnit timeUnit) {
+            if (filter != null) {
+                filter.stop();
+            }
+            return super.stop(timeout, timeUnit);
+        }
+    }
+}
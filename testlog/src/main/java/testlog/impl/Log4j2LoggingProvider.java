@@ -0,0 +1,21 @@
+package testlog.impl;
+
+/**
+ * Provider of logging through Log4j 2, when SLF4J is bound to it
+ */
+public class Log4j2LoggingProvider implements LoggingProvider {
+    @Override
+    public Logging createLogging() {
+        return new Log4j2Logging();
+    }
+
+    @Override
+    public int getPriority() {
+        return 400;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return LoggingFactory.hasLog4j2();
+    }
+}
@@ -1,74 +1,364 @@
 package testlog.impl;
 
 import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Layout;
 import org.apache.log4j.Logger;
+import org.apache.log4j.MDC;
+import org.apache.log4j.helpers.OnlyOnceErrorHandler;
+import org.apache.log4j.spi.ErrorHandler;
+import org.apache.log4j.spi.Filter;
 import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.spi.ThrowableInformation;
-import org.apache.log4j.varia.NullAppender;
+import testlog.CaptureScope;
+import testlog.LogContext;
+import testlog.LogItem;
+import testlog.impl.CaptureMetrics.Counter;
 
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
 
 class Log4jLogging implements Logging {
-    private final Map<LogCallback, Appender> logCallbacks = new HashMap<>();
+    // appenders of the root logger that do not consult the mute filter, which are detached from it while muted
+    private static final List<Appender> detachedAppenders = new CopyOnWriteArrayList<>();
+
+    private static final LogDispatcher dispatcher = new LogDispatcher();
+
+    private static final Appender dispatcherAppender = new CallbackAppender(dispatcher);
 
-    private final List<Appender> savedAppenders = new ArrayList<>();
+    private static final MuteSwitch muteSwitch = new MuteSwitch();
+
+    private static final ReplayBuffers<LoggingEvent> replayBuffers = new ReplayBuffers<>(
+            event -> ReplayBuffers.estimateLength(event.getRenderedMessage(), null), Log4jLogging::replay);
 
     @Override
     public void deregisterCallback(LogCallback logCallback) {
-        Appender appender = logCallbacks.get(logCallback);
-        Logger.getRootLogger().removeAppender(appender);
+        dispatcher.remove(logCallback);
     }
 
     @Override
     public void mute() {
-        Logger rootLogger = Logger.getRootLogger();
-        saveAppenders(rootLogger);
-        rootLogger.addAppender(new NullAppender());
+        if (muteSwitch.hold()) {
+            applyMuteSwitch();
+        }
+    }
+
+    @Override
+    public ReplayBuffer openReplayBuffer(long capacity, CaptureScope scope) {
+        // the appender of the dispatcher receives the log events that are muted
+        installAppender();
+        return replayBuffers.open(capacity, scope);
     }
 
     @Override
     public void registerCallback(LogCallback logCallback) {
-        Appender appender = buildAppender(logCallback);
-        logCallbacks.put(logCallback, appender);
-        Logger.getRootLogger().addAppender(appender);
+        installAppender();
+        dispatcher.add(logCallback);
     }
 
     @Override
     public void unmute() {
-        Logger rootLogger = Logger.getRootLogger();
-        rootLogger.removeAllAppenders();
-        restoreAppenders(rootLogger);
+        if (muteSwitch.release()) {
+            applyMuteSwitch();
+        }
     }
 
-    private Appender buildAppender(LogCallback logCallback) {
-        return new NullAppender() {
-            @Override
-            public void doAppend(LoggingEvent event) {
-                ThrowableInformation throwableInformation = event.getThrowableInformation();
-                Throwable throwable = throwableInformation == null ? null : throwableInformation.getThrowable();
-                logCallback.log(Log4jLevelUtil.convertLevel(event.getLevel()), event.getRenderedMessage(), throwable);
+    /**
+     * Mute the appenders of the root logger, other than the appender of the dispatcher, or unmute them, after the
+     * state of the mute switch, which muters may hold and release concurrently. An appender that consults its filters
+     * gets a mute filter once, after which muting it is only a matter of flipping the mute switch. Any other appender
+     * is detached from the root logger while muted, and attached again when unmuted
+     */
+    private static synchronized void applyMuteSwitch() {
+        Logger rootLogger = Logger.getRootLogger();
+        if (!muteSwitch.isHeld()) {
+            for (Appender appender : detachedAppenders) {
+                rootLogger.addAppender(appender);
+            }
+            detachedAppenders.clear();
+            return;
+        }
+
+        for (Appender appender : getAppenders(rootLogger)) {
+            if (appender == dispatcherAppender || hasMuteFilter(appender)) {
+                continue;
             }
-        };
+            if (consultsFilters(appender)) {
+                installMuteFilter(appender);
+            } else {
+                detachedAppenders.add(appender);
+                rootLogger.removeAppender(appender);
+            }
+        }
     }
 
-    private void restoreAppenders(Logger rootLogger) {
-        for (Appender savedAppender : savedAppenders) {
-            rootLogger.addAppender(savedAppender);
+    /**
+     * Tell whether the appender consults its filters, which {@link AppenderSkeleton} does, unless a subclass overrides
+     * the method that does so, like {@link org.apache.log4j.varia.NullAppender} does
+     */
+    private static boolean consultsFilters(Appender appender) {
+        if (!(appender instanceof AppenderSkeleton)) {
+            return false;
+        }
+        try {
+            return appender.getClass().getMethod("doAppend", LoggingEvent.class).getDeclaringClass()
+                    == AppenderSkeleton.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e); // every appender has it
         }
-        savedAppenders.clear();
     }
 
-    private void saveAppenders(Logger rootLogger) {
+    private static List<Appender> getAppenders(Logger logger) {
+        List<Appender> appenders = new ArrayList<>();
         @SuppressWarnings("unchecked")
-        Enumeration<Appender> allAppenders = rootLogger.getAllAppenders();
+        Enumeration<Appender> allAppenders = logger.getAllAppenders();
         while (allAppenders.hasMoreElements()) {
-            Appender appender = allAppenders.nextElement();
-            savedAppenders.add(appender);
-            rootLogger.removeAppender(appender);
+            appenders.add(allAppenders.nextElement());
+        }
+        return appenders;
+    }
+
+    private static boolean hasMuteFilter(Appender appender) {
+        for (Filter filter = appender.getFilter(); filter != null; filter = filter.getNext()) {
+            if (filter instanceof MuteFilter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Install the appender of the dispatcher, once, or again after Log4j was reconfigured
+     */
+    private static synchronized void installAppender() {
+        Logger rootLogger = Logger.getRootLogger();
+        if (!rootLogger.isAttached(dispatcherAppender)) {
+            rootLogger.addAppender(dispatcherAppender);
+        }
+    }
+
+    /**
+     * Install a mute filter in front of the other filters of the appender. Log4j can only add filters at the end, so
+     * moving the other filters behind the mute filter is done while holding the lock that the appender takes to
+     * append, so that no log event passes the appender without its filters
+     */
+    private static void installMuteFilter(Appender appender) {
+        if (appender.getFilter() == null) {
+            appender.addFilter(new MuteFilter());
+            return;
+        }
+        List<Filter> filters = new ArrayList<>();
+        for (Filter filter = appender.getFilter(); filter != null; filter = filter.getNext()) {
+            filters.add(filter);
+        }
+        synchronized (appender) {
+            appender.clearFilters();
+            appender.addFilter(new MuteFilter());
+            // the filters are still linked to each other, so this only moves the tail of the chain along
+            for (Filter filter : filters) {
+                appender.addFilter(filter);
+            }
+        }
+    }
+
+    private static void replay(LoggingEvent event) {
+        muteSwitch.bypass(() -> {
+            for (Appender appender : getAppenders(Logger.getRootLogger())) {
+                if (appender != dispatcherAppender) {
+                    appender.doAppend(event);
+                }
+            }
+            for (Appender appender : detachedAppenders) {
+                appender.doAppend(event);
+            }
+        });
+    }
+
+    /**
+     * Appender that hands the events to the callback, and to the replay buffers while muted. Unlike
+     * {@link AppenderSkeleton} it does not synchronize, so that threads that are logging concurrently are not
+     * serialized by the capture
+     */
+    private static class CallbackAppender implements Appender {
+        private final LogCallback logCallback;
+
+        private volatile ErrorHandler errorHandler = new OnlyOnceErrorHandler();
+
+        private volatile Filter headFilter;
+
+        private volatile String name;
+
+        CallbackAppender(LogCallback logCallback) {
+            this.logCallback = logCallback;
+        }
+
+        @Override
+        public synchronized void addFilter(Filter filter) {
+            if (headFilter == null) {
+                headFilter = filter;
+                return;
+            }
+            Filter tailFilter = headFilter;
+            while (tailFilter.getNext() != null) {
+                tailFilter = tailFilter.getNext();
+            }
+            tailFilter.setNext(filter);
+        }
+
+        @Override
+        public void clearFilters() {
+            headFilter = null;
+        }
+
+        @Override
+        public void close() {
+            ; // nothing to close
+        }
+
+        @Override
+        public void doAppend(LoggingEvent event) {
+            for (Filter filter = headFilter; filter != null; filter = filter.getNext()) {
+                int decision = filter.decide(event);
+                if (decision == Filter.DENY) {
+                    return;
+                } else if (decision == Filter.ACCEPT) {
+                    break;
+                }
+            }
+            org.slf4j.event.Level level = Log4jLevelUtil.convertLevel(event.getLevel());
+            if (CaptureMetrics.isEnabled() && muteSwitch.isMuted()) {
+                CaptureMetrics.count(Counter.MUTED, level);
+            }
+            if (!replayBuffers.isEmpty() && muteSwitch.isMuted()) {
+                // take these from the thread that is logging, rather than from the one that replays
+                event.getThreadName();
+                event.getNDC();
+                event.getMDCCopy();
+                replayBuffers.add(event);
+            }
+            if (level.toInt() < logCallback.getMinimumLevel().toInt()) {
+                return;
+            }
+            ThrowableInformation throwableInformation = event.getThrowableInformation();
+            Throwable throwable = throwableInformation == null ? null : throwableInformation.getThrowable();
+            logCallback.log(new LogItem(level, event.getLoggerName(), event::getRenderedMessage, throwable,
+                    new EventContext(event)));
+        }
+
+        @Override
+        public ErrorHandler getErrorHandler() {
+            return errorHandler;
+        }
+
+        @Override
+        public Filter getFilter() {
+            return headFilter;
+        }
+
+        @Override
+        public Layout getLayout() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean requiresLayout() {
+            return false;
+        }
+
+        @Override
+        public void setErrorHandler(ErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+        }
+
+        @Override
+        public void setLayout(Layout layout) {
+            ; // no layout required
+        }
+
+        @Override
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Context of a log event, which refers to the event. Log4j has no markers, and changes the MDC of a thread in
+     * place, so a non-empty MDC is snapshot right away by the event itself, which only clones the table of the MDC.
+     * That snapshot is converted to a map of strings when the MDC is asked for
+     */
+    private static class EventContext implements LogContext {
+        private final LoggingEvent event;
+
+        private volatile Map<String, String> mdc;
+
+        EventContext(LoggingEvent event) {
+            event.getThreadName();
+            this.event = event;
+            Hashtable<?, ?> context = MDC.getContext();
+            if (context == null || context.isEmpty()) {
+                this.mdc = emptyMap();
+            } else {
+                event.getMDCCopy();
+            }
+        }
+
+        @Override
+        public List<String> getMarkers() {
+            return emptyList();
+        }
+
+        @Override
+        public Map<String, String> getMdc() {
+            Map<String, String> mdc = this.mdc;
+            if (mdc == null) {
+                // racing threads convert the same snapshot, so either of them may win
+                mdc = convertMdc(event.getProperties());
+                this.mdc = mdc;
+            }
+            return mdc;
+        }
+
+        @Override
+        public String getThreadName() {
+            return event.getThreadName();
+        }
+
+        @Override
+        public long getTimestamp() {
+            return event.getTimeStamp();
+        }
+
+        private static Map<String, String> convertMdc(Map<?, ?> properties) {
+            Map<String, String> mdc = new HashMap<>();
+            for (Map.Entry<?, ?> entry : properties.entrySet()) {
+                mdc.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+            }
+            return unmodifiableMap(mdc);
+        }
+    }
+
+    /**
+     * Filter that denies all log events while muted, and is neutral otherwise. It goes in front of the other filters
+     * of an appender, so that muting is only a matter of flipping the mute switch
+     */
+    private static class MuteFilter extends Filter {
+        @Override
+        public int decide(LoggingEvent event) {
+            return muteSwitch.isMuted() ? DENY : NEUTRAL;
         }
     }
 }
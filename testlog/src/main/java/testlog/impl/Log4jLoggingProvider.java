@@ -0,0 +1,21 @@
+package testlog.impl;
+
+/**
+ * Provider of logging through Log4j
+ */
+public class Log4jLoggingProvider implements LoggingProvider {
+    @Override
+    public Logging createLogging() {
+        return new Log4jLogging();
+    }
+
+    @Override
+    public int getPriority() {
+        return 300;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return LoggingFactory.hasLog4j();
+    }
+}
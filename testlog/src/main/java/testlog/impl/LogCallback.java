@@ -1,7 +1,45 @@
 package testlog.impl;
 
 import org.slf4j.event.Level;
+import testlog.CaptureScope;
+import testlog.LogItem;
 
 public interface LogCallback {
-    void log(Level level, String message, Throwable throwable);
+    /**
+     * Get the level below which log events are of no interest to this callback, so that the logging backend may skip
+     * them as early as possible. This may change over time.
+     *
+     * @return minimum level of interest
+     */
+    default Level getMinimumLevel() {
+        return Level.TRACE;
+    }
+
+    /**
+     * Get the scope of the log events that are of interest to this callback. Log events from threads that are in
+     * another scope, or in no scope, are not handed to this callback.
+     *
+     * @return scope of interest, or null for log events of all threads
+     */
+    default CaptureScope getScope() {
+        return null;
+    }
+
+    /**
+     * Receive a log event, of which the message is rendered eagerly.
+     *
+     * @param level     level of the log event
+     * @param message   message of the log event
+     * @param throwable throwable of the log event, if any
+     */
+    default void log(Level level, String message, Throwable throwable) {
+        log(new LogItem(level, message, throwable));
+    }
+
+    /**
+     * Receive a log event.
+     *
+     * @param logItem log event, of which the message may be rendered lazily
+     */
+    void log(LogItem logItem);
 }
@@ -0,0 +1,98 @@
+package testlog.impl;
+
+import org.slf4j.event.Level;
+import testlog.CaptureScope;
+import testlog.LogItem;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Log callback that hands every log item to all registered log callbacks, so that a logging implementation needs only
+ * one appender for all of these, which stays installed. Registering replaces an array of callbacks, so that the
+ * threads that are logging never lock and all callbacks share the same log item
+ */
+class LogDispatcher implements LogCallback {
+    private static final LogCallback[] NO_LOG_CALLBACKS = new LogCallback[0];
+
+    private final AtomicReference<LogCallback[]> logCallbacks = new AtomicReference<>(NO_LOG_CALLBACKS);
+
+    void add(LogCallback logCallback) {
+        logCallbacks.updateAndGet(current -> {
+            LogCallback[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = logCallback;
+            return updated;
+        });
+    }
+
+    /**
+     * Get the lowest of the minimum levels of the registered log callbacks. Without log callbacks only errors pass,
+     * since a level above errors does not exist.
+     *
+     * @return minimum level of interest
+     */
+    @Override
+    public Level getMinimumLevel() {
+        Level minimumLevel = Level.ERROR;
+        for (LogCallback logCallback : logCallbacks.get()) {
+            Level level = logCallback.getMinimumLevel();
+            if (level.toInt() < minimumLevel.toInt()) {
+                minimumLevel = level;
+            }
+        }
+        return minimumLevel;
+    }
+
+    /**
+     * Hand the log item to every registered log callback that is interested in its level, and in the scope of the
+     * current thread, if the log callback is scoped. If log callbacks fail (a log asserter does so for unexpected logs)
+     * the others still receive the log item, and the first failure is rethrown.
+     *
+     * @param logItem log item to hand out
+     */
+    @Override
+    public void log(LogItem logItem) {
+        CaptureScope currentScope = CaptureScope.getCurrent();
+        RuntimeException runtimeException = null;
+        Error error = null;
+        for (LogCallback logCallback : logCallbacks.get()) {
+            if (logItem.getLevel().toInt() < logCallback.getMinimumLevel().toInt()) {
+                continue;
+            }
+            CaptureScope scope = logCallback.getScope();
+            if (scope != null && scope != currentScope) {
+                continue;
+            }
+            try {
+                logCallback.log(logItem);
+            } catch (RuntimeException exception) {
+                if (runtimeException == null && error == null) {
+                    runtimeException = exception;
+                }
+            } catch (Error exception) {
+                if (runtimeException == null && error == null) {
+                    error = exception;
+                }
+            }
+        }
+        if (runtimeException != null) {
+            throw runtimeException;
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    void remove(LogCallback logCallback) {
+        logCallbacks.updateAndGet(current -> {
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == logCallback) {
+                    LogCallback[] updated = Arrays.copyOf(current, current.length - 1);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    return updated;
+                }
+            }
+            return current;
+        });
+    }
+}
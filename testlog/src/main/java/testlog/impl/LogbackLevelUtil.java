@@ -19,4 +19,20 @@ public class LogbackLevelUtil {
         }
         throw new RuntimeException(format("level %s is not supported", level));
     }
+
+    public static ch.qos.logback.classic.Level convertLevel(Level level) {
+        switch (level) {
+            case ERROR:
+                return ch.qos.logback.classic.Level.ERROR;
+            case WARN:
+                return ch.qos.logback.classic.Level.WARN;
+            case INFO:
+                return ch.qos.logback.classic.Level.INFO;
+            case DEBUG:
+                return ch.qos.logback.classic.Level.DEBUG;
+            case TRACE:
+                return ch.qos.logback.classic.Level.TRACE;
+        }
+        throw new RuntimeException(format("level %s is not supported", level));
+    }
 }
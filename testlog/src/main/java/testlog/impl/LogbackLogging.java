@@ -1,96 +1,397 @@
 package testlog.impl;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.EventArgUtil;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.ThrowableProxy;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.AppenderBase;
-import ch.qos.logback.core.Context;
-import ch.qos.logback.core.helpers.NOPAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.spi.MDCAdapter;
+import testlog.CaptureScope;
+import testlog.LogContext;
+import testlog.LogItem;
+import testlog.impl.CaptureMetrics.Counter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
 
 class LogbackLogging implements Logging {
-    private final Map<LogCallback, Appender<ILoggingEvent>> logCallbacks = new HashMap<>();
+    /**
+     * System property to choose how log events are captured: through an appender on the root logger (the default), or
+     * with value {@value #CAPTURE_TURBO_FILTER} through a turbo filter on the logger context. The latter sees the log
+     * events of all loggers, also of those that are not additive, and skips the log events below the minimum level of
+     * interest before Logback builds an event
+     */
+    private static final String CAPTURE_PROPERTY = "testlog.logback.capture";
+
+    private static final String CAPTURE_TURBO_FILTER = "turboFilter";
+
+    private static final LogDispatcher appenderDispatcher = new LogDispatcher();
+
+    // appenders of the root logger that do not consult the mute filter first, which are detached from it while muted
+    private static final List<Appender<ILoggingEvent>> detachedAppenders = new CopyOnWriteArrayList<>();
+
+    private static final CallbackAppender dispatcherAppender = new CallbackAppender(appenderDispatcher);
+
+    private static final TurboFilter dispatcherTurboFilter;
 
-    private final List<Appender<ILoggingEvent>> savedAppenders = new ArrayList<>();
+    private static final MuteFilter muteFilter = new MuteFilter();
+
+    private static final MuteSwitch muteSwitch = new MuteSwitch();
+
+    private static final ReplayBuffers<ILoggingEvent> replayBuffers = new ReplayBuffers<>(
+            event -> ReplayBuffers.estimateLength(event.getMessage(), event.getArgumentArray()),
+            LogbackLogging::replay);
+
+    private static final LogDispatcher turboFilterDispatcher = new LogDispatcher();
+
+    static {
+        // after the dispatcher that it refers to
+        dispatcherTurboFilter = new CallbackTurboFilter(turboFilterDispatcher);
+    }
 
     @Override
     public void deregisterCallback(LogCallback logCallback) {
-        Appender<ILoggingEvent> appender = logCallbacks.get(logCallback);
-        getRootLogger().detachAppender(appender);
+        appenderDispatcher.remove(logCallback);
+        turboFilterDispatcher.remove(logCallback);
     }
 
     @Override
     public void mute() {
-        Logger rootLogger = getRootLogger();
-        saveAppenders(rootLogger);
-        rootLogger.addAppender(getNopAppender());
+        if (muteSwitch.hold()) {
+            applyMuteSwitch();
+        }
+    }
+
+    @Override
+    public ReplayBuffer openReplayBuffer(long capacity, CaptureScope scope) {
+        // the appender of the dispatcher receives the log events that are muted, also when capturing by turbo filter
+        installAppender();
+        return replayBuffers.open(capacity, scope);
     }
 
     @Override
     public void registerCallback(LogCallback logCallback) {
-        Appender<ILoggingEvent> appender = buildAppender(logCallback);
-        logCallbacks.put(logCallback, appender);
-        getRootLogger().addAppender(appender);
+        if (CAPTURE_TURBO_FILTER.equals(System.getProperty(CAPTURE_PROPERTY))) {
+            installTurboFilter();
+            turboFilterDispatcher.add(logCallback);
+            return;
+        }
+        installAppender();
+        appenderDispatcher.add(logCallback);
     }
 
     @Override
     public void unmute() {
+        if (muteSwitch.release()) {
+            applyMuteSwitch();
+        }
+    }
+
+    private static void addMarkerNames(Marker marker, List<String> markerNames) {
+        if (markerNames.contains(marker.getName())) {
+            return;
+        }
+        markerNames.add(marker.getName());
+        Iterator<Marker> references = marker.iterator();
+        while (references.hasNext()) {
+            addMarkerNames(references.next(), markerNames);
+        }
+    }
+
+    /**
+     * Mute the appenders of the root logger, other than the appender of the dispatcher, or unmute them, after the
+     * state of the mute switch, which muters may hold and release concurrently. An appender that consults the mute
+     * filter before its other filters gets it once, after which muting it is only a matter of flipping the mute switch.
+     * Any other appender is detached from the root logger while muted, and attached again when unmuted
+     */
+    private static synchronized void applyMuteSwitch() {
         Logger rootLogger = getRootLogger();
-        rootLogger.detachAndStopAllAppenders();
-        restoreAppenders(rootLogger);
+        if (!muteSwitch.isHeld()) {
+            for (Appender<ILoggingEvent> appender : detachedAppenders) {
+                rootLogger.addAppender(appender);
+            }
+            detachedAppenders.clear();
+            return;
+        }
+
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        rootLogger.iteratorForAppenders().forEachRemaining(appenders::add);
+        for (Appender<ILoggingEvent> appender : appenders) {
+            List<Filter<ILoggingEvent>> filters = appender.getCopyOfAttachedFiltersList();
+            if (appender == dispatcherAppender || filters.contains(muteFilter)) {
+                continue;
+            }
+            if (consultsFilters(appender) && (filters.isEmpty() || appender instanceof AppenderBase)) {
+                installMuteFilter(appender, filters);
+            } else {
+                detachedAppenders.add(appender);
+                rootLogger.detachAppender(appender);
+            }
+        }
     }
 
-    private Appender<ILoggingEvent> buildAppender(LogCallback logCallback) {
-        return new CallbackAppender(logCallback);
+    /**
+     * Tell whether the appender consults its filters, which the base classes of appenders do, unless a subclass
+     * overrides the method that does so
+     */
+    private static boolean consultsFilters(Appender<ILoggingEvent> appender) {
+        if (!(appender instanceof AppenderBase || appender instanceof UnsynchronizedAppenderBase)) {
+            return false;
+        }
+        try {
+            Class<?> declaringClass = appender.getClass().getMethod("doAppend", Object.class).getDeclaringClass();
+            return declaringClass == AppenderBase.class || declaringClass == UnsynchronizedAppenderBase.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e); // every appender has it
+        }
     }
 
-    private Appender<ILoggingEvent> getNopAppender() {
-        NOPAppender<ILoggingEvent> appender = new NOPAppender<>();
-        appender.setContext((Context) LoggerFactory.getILoggerFactory());
-        return appender;
+    private static LoggerContext getLoggerContext() {
+        return (LoggerContext) LoggerFactory.getILoggerFactory();
     }
 
-    private Logger getRootLogger() {
+    private static List<String> getMarkerNames(Marker marker) {
+        if (marker == null) {
+            return emptyList();
+        }
+        List<String> markerNames = new ArrayList<>();
+        addMarkerNames(marker, markerNames);
+        return unmodifiableList(markerNames);
+    }
+
+    private static Logger getRootLogger() {
         return (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
     }
 
-    private void restoreAppenders(Logger rootLogger) {
-        for (Appender<ILoggingEvent> savedAppender : savedAppenders) {
-            rootLogger.addAppender(savedAppender);
+    /**
+     * Install the appender of the dispatcher, once, or again after Logback was reconfigured
+     */
+    private static synchronized void installAppender() {
+        Logger rootLogger = getRootLogger();
+        if (!rootLogger.isAttached(dispatcherAppender)) {
+            dispatcherAppender.setContext(getLoggerContext());
+            dispatcherAppender.start();
+            rootLogger.addAppender(dispatcherAppender);
+        }
+    }
+
+    /**
+     * Install the mute filter in front of the other filters of the appender, if any. Logback can only add filters at
+     * the end, so moving the other filters behind the mute filter is done while holding the lock that the appender
+     * takes to append, so that no log event passes the appender without its filters
+     */
+    private static void installMuteFilter(Appender<ILoggingEvent> appender, List<Filter<ILoggingEvent>> filters) {
+        if (filters.isEmpty()) {
+            appender.addFilter(muteFilter);
+            return;
+        }
+        synchronized (appender) {
+            appender.clearAllFilters();
+            appender.addFilter(muteFilter);
+            for (Filter<ILoggingEvent> filter : filters) {
+                appender.addFilter(filter);
+            }
         }
-        savedAppenders.clear();
     }
 
-    private void saveAppenders(Logger rootLogger) {
-        Iterator<Appender<ILoggingEvent>> allAppenders = rootLogger.iteratorForAppenders();
-        while (allAppenders.hasNext()) {
-            Appender<ILoggingEvent> appender = allAppenders.next();
-            savedAppenders.add(appender);
-            rootLogger.detachAppender(appender);
+    /**
+     * Install the turbo filter of the dispatcher, once, or again after Logback was reconfigured
+     */
+    private static synchronized void installTurboFilter() {
+        LoggerContext loggerContext = getLoggerContext();
+        if (!loggerContext.getTurboFilterList().contains(dispatcherTurboFilter)) {
+            dispatcherTurboFilter.setContext(loggerContext);
+            dispatcherTurboFilter.start();
+            loggerContext.addTurboFilter(dispatcherTurboFilter);
         }
     }
 
-    private class CallbackAppender extends AppenderBase<ILoggingEvent> {
+    private static void replay(ILoggingEvent event) {
+        muteSwitch.bypass(() -> {
+            Iterator<Appender<ILoggingEvent>> appenders = getRootLogger().iteratorForAppenders();
+            while (appenders.hasNext()) {
+                Appender<ILoggingEvent> appender = appenders.next();
+                if (appender != dispatcherAppender) {
+                    appender.doAppend(event);
+                }
+            }
+            for (Appender<ILoggingEvent> appender : detachedAppenders) {
+                appender.doAppend(event);
+            }
+        });
+    }
+
+    /**
+     * Appender that hands the events to the callback, and to the replay buffers while muted. Unlike
+     * {@link AppenderBase} it does not synchronize, so that threads that are logging concurrently are not serialized
+     * by the capture
+     */
+    private static class CallbackAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
         private final LogCallback logCallback;
 
-        public CallbackAppender(LogCallback logCallback) {
+        CallbackAppender(LogCallback logCallback) {
             this.logCallback = logCallback;
-            this.started = true;
-            setContext((Context) LoggerFactory.getILoggerFactory());
         }
 
         @Override
         protected void append(ILoggingEvent event) {
+            org.slf4j.event.Level level = LogbackLevelUtil.convertLevel(event.getLevel());
+            if (CaptureMetrics.isEnabled() && muteSwitch.isMuted()) {
+                CaptureMetrics.count(Counter.MUTED, level);
+            }
+            if (!replayBuffers.isEmpty() && muteSwitch.isMuted()) {
+                // take these from the thread that is logging, rather than from the one that replays
+                event.getThreadName();
+                event.getMDCPropertyMap();
+                replayBuffers.add(event);
+            }
+            if (level.toInt() < logCallback.getMinimumLevel().toInt()) {
+                return;
+            }
             ThrowableProxy throwableProxy = (ThrowableProxy) event.getThrowableProxy();
             Throwable throwable = throwableProxy == null ? null : throwableProxy.getThrowable();
-            logCallback.log(LogbackLevelUtil.convertLevel(event.getLevel()), event.getFormattedMessage(), throwable);
+            logCallback.log(new LogItem(level, event.getLoggerName(), event::getFormattedMessage, throwable,
+                    new EventContext(event)));
+        }
+    }
+
+    /**
+     * Context of a log event, which refers to the event. The thread name and the MDC are taken from the thread that is
+     * logging right away, which is cheap, since Logback keeps the MDC as a map that it copies on write
+     */
+    private static class EventContext implements LogContext {
+        private final ILoggingEvent event;
+
+        EventContext(ILoggingEvent event) {
+            event.getThreadName();
+            event.getMDCPropertyMap();
+            this.event = event;
+        }
+
+        @Override
+        public List<String> getMarkers() {
+            return getMarkerNames(event.getMarker());
+        }
+
+        @Override
+        public Map<String, String> getMdc() {
+            return unmodifiableMap(event.getMDCPropertyMap());
+        }
+
+        @Override
+        public String getThreadName() {
+            return event.getThreadName();
+        }
+
+        @Override
+        public long getTimestamp() {
+            return event.getTimeStamp();
+        }
+    }
+
+    /**
+     * Filter that denies all log events while muted, and is neutral otherwise. It goes in front of the other filters
+     * of an appender, so that muting is only a matter of flipping the mute switch
+     */
+    private static class MuteFilter extends Filter<ILoggingEvent> {
+        @Override
+        public FilterReply decide(ILoggingEvent event) {
+            return muteSwitch.isMuted() ? FilterReply.DENY : FilterReply.NEUTRAL;
+        }
+    }
+
+    /**
+     * Turbo filter that hands the log events to the callback, before Logback builds an event for these. It never
+     * affects whether log events are logged
+     */
+    private static class CallbackTurboFilter extends TurboFilter {
+        private final LogCallback logCallback;
+
+        CallbackTurboFilter(LogCallback logCallback) {
+            this.logCallback = logCallback;
+        }
+
+        @Override
+        public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                                  Throwable throwable) {
+            // no format means this is just a check whether the level is enabled
+            if (format == null
+                    || !level.isGreaterOrEqual(LogbackLevelUtil.convertLevel(logCallback.getMinimumLevel()))
+                    || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+                return FilterReply.NEUTRAL;
+            }
+
+            Throwable actualThrowable = throwable == null ? EventArgUtil.extractThrowable(params) : throwable;
+            logCallback.log(new LogItem(LogbackLevelUtil.convertLevel(level), logger.getName(),
+                    () -> MessageFormatter.arrayFormat(format, params).getMessage(), actualThrowable,
+                    new TurboFilterContext(marker)));
+            return FilterReply.NEUTRAL;
+        }
+    }
+
+    /**
+     * Context of a log event that is captured by the turbo filter, before Logback builds an event. It takes the thread
+     * name, the time and the MDC of the thread that is logging right away, the latter by reference, since Logback keeps
+     * it as a map that it copies on write
+     */
+    private static class TurboFilterContext implements LogContext {
+        private final Marker marker;
+
+        private final Map<String, String> mdc;
+
+        private final String threadName;
+
+        private final long timestamp;
+
+        TurboFilterContext(Marker marker) {
+            MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+            Map<String, String> propertyMap = mdcAdapter instanceof LogbackMDCAdapter
+                    ? ((LogbackMDCAdapter) mdcAdapter).getPropertyMap()
+                    : MDC.getCopyOfContextMap();
+            this.marker = marker;
+            this.mdc = propertyMap == null ? emptyMap() : propertyMap;
+            this.threadName = Thread.currentThread().getName();
+            this.timestamp = System.currentTimeMillis();
+        }
+
+        @Override
+        public List<String> getMarkers() {
+            return getMarkerNames(marker);
+        }
+
+        @Override
+        public Map<String, String> getMdc() {
+            return unmodifiableMap(mdc);
+        }
+
+        @Override
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
         }
     }
 }
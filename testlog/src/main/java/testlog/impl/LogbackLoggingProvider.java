@@ -0,0 +1,21 @@
+package testlog.impl;
+
+/**
+ * Provider of logging through Logback
+ */
+public class LogbackLoggingProvider implements LoggingProvider {
+    @Override
+    public Logging createLogging() {
+        return new LogbackLogging();
+    }
+
+    @Override
+    public int getPriority() {
+        return 100;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return LoggingFactory.hasLogback();
+    }
+}
@@ -1,11 +1,29 @@
 package testlog.impl;
 
+import testlog.CaptureScope;
+
 public interface Logging {
     void deregisterCallback(LogCallback logCallback);
 
+    /**
+     * Mute the log. Muting is shared JVM-wide and counted: the log stays muted until every mute is matched by an
+     * unmute.
+     */
     void mute();
 
+    /**
+     * Start buffering the log events that are muted, to replay these later on, e.g. when a test fails.
+     *
+     * @param capacity estimate of the bytes to buffer at most, beyond which the oldest log events are dropped
+     * @param scope    scope of the threads of which to buffer the log events, or null for all threads
+     * @return buffer that receives the log events that are muted, until it is discarded or replayed
+     */
+    ReplayBuffer openReplayBuffer(long capacity, CaptureScope scope);
+
     void registerCallback(LogCallback logCallback);
 
+    /**
+     * Unmute the log, if this matches the last mute that is still in effect.
+     */
     void unmute();
 }
@@ -1,29 +1,74 @@
 package testlog.impl;
 
+import java.util.ServiceLoader;
+
+import static java.lang.String.format;
+
+/**
+ * Factory of the logging implementation. The {@link LoggingProvider} to use is discovered once per JVM, through the
+ * {@link ServiceLoader}, upon first use. The logging implementation that it provides is shared
+ */
 public class LoggingFactory {
     private LoggingFactory() {
         ; // utility classes should not have a public or default constructor
     }
 
     public static Logging getLogging() {
-        if (hasLog4j()) {
-            return new Log4jLogging();
+        return ProviderHolder.logging;
+    }
+
+    static LoggingProvider chooseProvider(Iterable<LoggingProvider> providers) {
+        LoggingProvider chosen = null;
+        for (LoggingProvider provider : providers) {
+            if ((chosen == null || provider.getPriority() > chosen.getPriority()) && provider.isAvailable()) {
+                chosen = provider;
+            }
+        }
+        if (chosen == null) {
+            throw new RuntimeException(format("no supported logging implementation found, registered as %s",
+                    LoggingProvider.class.getName()));
         }
+        return chosen;
+    }
+
+    static LoggingProvider getProvider() {
+        return ProviderHolder.provider;
+    }
 
-        return new LogbackLogging();
+    static boolean hasJul() {
+        // java.util.logging is always there, so only if it is where SLF4J logs to
+        return hasClass("org.slf4j.impl.JDK14LoggerFactory");
+    }
+
+    static boolean hasLog4j() {
+        // only logger and not appender happens for log4j-over-slf4j, in which case log4j is probably not what we want
+        return hasClass("org.apache.log4j.Logger") && hasClass("org.apache.log4j.varia.NullAppender");
+    }
+
+    static boolean hasLog4j2() {
+        // takes priority over log4j, since the log4j 1.2 bridge of log4j 2 looks much like log4j itself
+        return hasClass("org.apache.logging.slf4j.Log4jLoggerFactory")
+                && hasClass("org.apache.logging.log4j.core.LoggerContext");
+    }
+
+    static boolean hasLogback() {
+        return hasClass("ch.qos.logback.classic.LoggerContext");
     }
 
     private static boolean hasClass(String className) {
         try {
-            Class.forName(className);
+            // without initializing, which for some logging frameworks would trigger their configuration
+            Class.forName(className, false, LoggingFactory.class.getClassLoader());
             return true;
         } catch (ClassNotFoundException e) {
             return false;
         }
     }
 
-    private static boolean hasLog4j() {
-        // only logger and not appender happens for log4j-over-slf4j, in which case log4j is probably not what we want
-        return hasClass("org.apache.log4j.Logger") && hasClass("org.apache.log4j.varia.NullAppender");
+    private static class ProviderHolder {
+        private static final LoggingProvider provider = chooseProvider(
+                ServiceLoader.load(LoggingProvider.class, LoggingFactory.class.getClassLoader()));
+
+        private static final Logging logging = provider.createLogging();
     }
 }
@@ -0,0 +1,31 @@
+package testlog.impl;
+
+/**
+ * Service provider of a {@link Logging} implementation, registered in
+ * {@code META-INF/services/testlog.impl.LoggingProvider}. Of all providers that are available, the one with the highest
+ * priority is used
+ */
+public interface LoggingProvider {
+    /**
+     * Create the logging implementation. Only called if this provider is available.
+     *
+     * @return new logging implementation
+     */
+    Logging createLogging();
+
+    /**
+     * Get the priority of this provider over other available providers. The built-in providers use priorities 100
+     * to 400.
+     *
+     * @return priority, higher wins
+     */
+    int getPriority();
+
+    /**
+     * Tell whether the logging implementation can be used. This should not initialize classes of the logging
+     * framework, since that may trigger its configuration.
+     *
+     * @return true if the logging implementation can be used
+     */
+    boolean isAvailable();
+}
@@ -0,0 +1,64 @@
+package testlog.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JVM-wide mute state of a logging implementation, shared by all muters. It counts the muters that currently hold it,
+ * so that muters may overlap in any order: the first one mutes, the last one to let go unmutes
+ */
+class MuteSwitch {
+    private final ThreadLocal<Boolean> bypassed = ThreadLocal.withInitial(() -> false);
+
+    private final AtomicInteger holdCount = new AtomicInteger();
+
+    /**
+     * Run with the switch bypassed on the current thread, so that the log is not muted for what it logs, e.g. to
+     * replay log events that were muted.
+     *
+     * @param runnable what to run
+     */
+    void bypass(Runnable runnable) {
+        bypassed.set(true);
+        try {
+            runnable.run();
+        } finally {
+            bypassed.set(false);
+        }
+    }
+
+    /**
+     * Hold the switch, muting the log.
+     *
+     * @return true if this is the first hold, which actually mutes the log
+     */
+    boolean hold() {
+        return holdCount.getAndIncrement() == 0;
+    }
+
+    /**
+     * Tell whether any muter holds the switch, regardless of whether it is bypassed on the current thread.
+     *
+     * @return true if at least one muter holds the switch
+     */
+    boolean isHeld() {
+        return holdCount.get() > 0;
+    }
+
+    /**
+     * Tell whether the log is muted.
+     *
+     * @return true if at least one muter holds the switch, and it is not bypassed on the current thread
+     */
+    boolean isMuted() {
+        return holdCount.get() > 0 && !bypassed.get();
+    }
+
+    /**
+     * Let go of the switch, unmuting the log if this was the last hold. Letting go more often than holding is ignored.
+     *
+     * @return true if this was the last hold, which actually unmutes the log
+     */
+    boolean release() {
+        return holdCount.getAndUpdate(count -> Math.max(0, count - 1)) == 1;
+    }
+}
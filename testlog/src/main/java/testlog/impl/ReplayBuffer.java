@@ -0,0 +1,17 @@
+package testlog.impl;
+
+/**
+ * Buffer of the log events that were muted, to write these after all, typically when a test fails. Either way the
+ * buffer stops buffering
+ */
+public interface ReplayBuffer {
+    /**
+     * Drop the buffered log events.
+     */
+    void discard();
+
+    /**
+     * Write the buffered log events, in the order in which they were logged, through the appenders that were muted.
+     */
+    void replay();
+}
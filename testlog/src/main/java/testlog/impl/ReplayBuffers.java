@@ -0,0 +1,132 @@
+package testlog.impl;
+
+import testlog.CaptureScope;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Replay buffers of a logging implementation, that receive the log events which are muted. A buffer of a scope only
+ * receives the log events of the threads in that scope, so that a test that runs in parallel with others only replays
+ * its own log events. The log events are kept as they are, so that their messages are only rendered if they are
+ * replayed. Each buffer is capped at an estimate of the bytes that it holds, beyond which it drops its oldest log
+ * events; the estimate renders the arguments of a message, but not the message itself
+ *
+ * @param <E> type of the log events of the logging implementation
+ */
+class ReplayBuffers<E> {
+    // estimate of the bytes of a log event, besides the characters of its message
+    private static final int EVENT_SIZE = 96;
+
+    private final List<Buffer> buffers = new CopyOnWriteArrayList<>();
+
+    private final ToIntFunction<E> messageLength;
+
+    private final Consumer<E> replayer;
+
+    /**
+     * Constructor.
+     *
+     * @param messageLength estimate of the length of the rendered message of a log event, which should not change
+     * @param replayer      writes a log event through the appenders that were muted
+     */
+    ReplayBuffers(ToIntFunction<E> messageLength, Consumer<E> replayer) {
+        this.messageLength = messageLength;
+        this.replayer = replayer;
+    }
+
+    /**
+     * Estimate the length of a rendered message from its template and its arguments, without rendering it.
+     *
+     * @param template  template of the message, or null
+     * @param arguments arguments of the message, or null
+     * @return length of the template and the rendered arguments together
+     */
+    static int estimateLength(String template, Object[] arguments) {
+        int length = template == null ? 0 : template.length();
+        if (arguments != null) {
+            for (Object argument : arguments) {
+                length += String.valueOf(argument).length();
+            }
+        }
+        return length;
+    }
+
+    void add(E event) {
+        CaptureScope currentScope = CaptureScope.getCurrent();
+        for (Buffer buffer : buffers) {
+            if (buffer.scope == null || buffer.scope == currentScope) {
+                buffer.add(event);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return buffers.isEmpty();
+    }
+
+    ReplayBuffer open(long capacity, CaptureScope scope) {
+        Buffer buffer = new Buffer(capacity, scope);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private long getSize(E event) {
+        return EVENT_SIZE + 2L * messageLength.applyAsInt(event);
+    }
+
+    private class Buffer implements ReplayBuffer {
+        private final long capacity;
+
+        private final Deque<E> events = new ArrayDeque<>();
+
+        private final CaptureScope scope;
+
+        private boolean closed;
+
+        private long size;
+
+        Buffer(long capacity, CaptureScope scope) {
+            this.capacity = capacity;
+            this.scope = scope;
+        }
+
+        @Override
+        public void discard() {
+            close();
+        }
+
+        @Override
+        public void replay() {
+            // outside of the lock, so that logging threads are not held up by the replay
+            for (E event : close()) {
+                replayer.accept(event);
+            }
+        }
+
+        synchronized void add(E event) {
+            if (closed) {
+                return;
+            }
+            events.addLast(event);
+            size += getSize(event);
+            while (size > capacity) {
+                size -= getSize(events.removeFirst());
+            }
+        }
+
+        private synchronized List<E> close() {
+            buffers.remove(this);
+            closed = true;
+            List<E> closedEvents = new ArrayList<>(events);
+            events.clear();
+            size = 0;
+            return closedEvents;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package testlog.matcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Aho-Corasick automaton that finds any number of keywords in a text in a single pass. It is built once, as a complete
+ * state machine over the characters of the keywords, so that scanning takes one table lookup per character of the text
+ */
+class KeywordAutomaton {
+    private static final int ASCII_SIZE = 128;
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    // symbols of the ASCII characters, or -1 for characters that do not occur in the keywords
+    private final int[] asciiSymbols = new int[ASCII_SIZE];
+
+    // the other characters that occur in the keywords, sorted, of which the symbol is the index plus the ASCII count
+    private final char[] otherCharacters;
+
+    // the keywords that end in each state, including those that end in its suffixes
+    private final int[][] outputs;
+
+    // next state for each state and symbol
+    private final int[][] transitions;
+
+    /**
+     * Constructor.
+     *
+     * @param keywords keywords to find, which should not be empty
+     */
+    KeywordAutomaton(String... keywords) {
+        TreeSet<Character> characters = new TreeSet<>();
+        for (String keyword : keywords) {
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keywords should not be empty");
+            }
+            for (char character : keyword.toCharArray()) {
+                characters.add(character);
+            }
+        }
+        Arrays.fill(asciiSymbols, -1);
+        int asciiCount = 0;
+        StringBuilder others = new StringBuilder();
+        for (char character : characters) {
+            if (character < ASCII_SIZE) {
+                asciiSymbols[character] = asciiCount++;
+            } else {
+                others.append(character);
+            }
+        }
+        otherCharacters = others.toString().toCharArray();
+        int symbolCount = asciiCount + otherCharacters.length;
+
+        // the trie, in which 0 means no transition yet, since no transition leads back to the root
+        List<int[]> trie = new ArrayList<>();
+        List<int[]> trieOutputs = new ArrayList<>();
+        trie.add(new int[symbolCount]);
+        trieOutputs.add(NO_OUTPUTS);
+        for (int keywordIndex = 0; keywordIndex < keywords.length; keywordIndex++) {
+            int state = 0;
+            for (char character : keywords[keywordIndex].toCharArray()) {
+                int symbol = getSymbol(character, asciiCount);
+                if (trie.get(state)[symbol] == 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(new int[symbolCount]);
+                    trieOutputs.add(NO_OUTPUTS);
+                }
+                state = trie.get(state)[symbol];
+            }
+            trieOutputs.set(state, append(trieOutputs.get(state), keywordIndex));
+        }
+
+        // breadth first, so that the failure state of each state is complete before the state itself
+        transitions = trie.toArray(new int[0][]);
+        outputs = trieOutputs.toArray(new int[0][]);
+        int[] failures = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            if (transitions[0][symbol] != 0) {
+                queue.add(transitions[0][symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputs[state] = concat(outputs[state], outputs[failures[state]]);
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int next = transitions[state][symbol];
+                if (next == 0) {
+                    transitions[state][symbol] = transitions[failures[state]][symbol];
+                } else {
+                    failures[next] = transitions[failures[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scan the text for the keywords, in a single pass.
+     *
+     * @param text    text to scan
+     * @param visitor receives the index of every keyword that is found, where it ends, and tells whether to stop
+     * @return true if the visitor stopped the scan
+     */
+    boolean scan(CharSequence text, IntPredicate visitor) {
+        int asciiCount = transitions[0].length - otherCharacters.length;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = getSymbol(text.charAt(i), asciiCount);
+            state = symbol < 0 ? 0 : transitions[state][symbol];
+            for (int keywordIndex : outputs[state]) {
+                if (visitor.test(keywordIndex)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] appended = Arrays.copyOf(values, values.length + 1);
+        appended[values.length] = value;
+        return appended;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        int[] concatenated = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, concatenated, first.length, second.length);
+        return concatenated;
+    }
+
+    private int getSymbol(char character, int asciiCount) {
+        if (character < ASCII_SIZE) {
+            return asciiSymbols[character];
+        }
+        int index = Arrays.binarySearch(otherCharacters, character);
+        return index < 0 ? -1 : asciiCount + index;
+    }
+}
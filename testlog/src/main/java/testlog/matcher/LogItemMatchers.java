@@ -0,0 +1,220 @@
+package testlog.matcher;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Matchers for log items
+ */
+public class LogItemMatchers {
+    private LogItemMatchers() {
+        ; // utility classes should not have a public or default constructor
+    }
+
+    /**
+     * @param level level to match
+     * @return matcher for log items of the given level
+     */
+    public static Matcher<LogItem> level(Level level) {
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("log item at level ").appendValue(level);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                return logItem.getLevel() == level;
+            }
+        };
+    }
+
+    /**
+     * @param loggerName name of the logger to match
+     * @return matcher for log items of the given logger
+     */
+    public static Matcher<LogItem> loggerName(String loggerName) {
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("log item of logger ").appendValue(loggerName);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                return loggerName.equals(logItem.getLoggerName());
+            }
+        };
+    }
+
+    /**
+     * @param markerName name of the marker to match
+     * @return matcher for log items with the given marker, also if it is referred to by another marker
+     */
+    public static Matcher<LogItem> marker(String markerName) {
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("log item with marker ").appendValue(markerName);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                return logItem.getMarkers().contains(markerName);
+            }
+        };
+    }
+
+    /**
+     * @param key   key of the mapped diagnostic context
+     * @param value value to match
+     * @return matcher for log items of which the mapped diagnostic context has the given value for the given key
+     */
+    public static Matcher<LogItem> mdc(String key, String value) {
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("log item with MDC ").appendValue(key).appendText("=").appendValue(value);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                return value.equals(logItem.getMdc().get(key));
+            }
+        };
+    }
+
+    /**
+     * @param keywords keywords that the message should all contain, which should not be empty
+     * @return matcher for log items of which the message contains all keywords, found in a single pass over the message
+     */
+    public static Matcher<LogItem> messageContainsAll(String... keywords) {
+        String[] distinctKeywords = Arrays.stream(keywords).distinct().toArray(String[]::new);
+        KeywordAutomaton automaton = new KeywordAutomaton(distinctKeywords);
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendValueList("log item with a message that contains all of ", ", ", "", keywords);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                String message = logItem.getMessage();
+                if (message == null) {
+                    return false;
+                }
+                boolean[] found = new boolean[distinctKeywords.length];
+                int[] foundCount = new int[1];
+                return automaton.scan(message, keywordIndex -> {
+                    if (!found[keywordIndex]) {
+                        found[keywordIndex] = true;
+                        foundCount[0]++;
+                    }
+                    return foundCount[0] == distinctKeywords.length;
+                });
+            }
+        };
+    }
+
+    /**
+     * @param keywords keywords of which the message should contain at least one, which should not be empty
+     * @return matcher for log items of which the message contains any of the keywords, found in a single pass over the
+     * message
+     */
+    public static Matcher<LogItem> messageContainsAny(String... keywords) {
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords);
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendValueList("log item with a message that contains any of ", ", ", "", keywords);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                String message = logItem.getMessage();
+                return message != null && automaton.scan(message, keywordIndex -> true);
+            }
+        };
+    }
+
+    /**
+     * @param glob pattern that the whole message should match, in which {@code *} matches any text and {@code ?} any
+     *             single character
+     * @return matcher for log items of which the message matches the pattern, which is compiled once
+     */
+    public static Matcher<LogItem> messageGlob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char character = glob.charAt(i);
+            if (character == '*' || character == '?') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                regex.append(character == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return messagePattern(Pattern.compile(regex.toString(), Pattern.DOTALL), "glob", glob);
+    }
+
+    /**
+     * @param regex regular expression that the whole message should match
+     * @return matcher for log items of which the message matches the regular expression, which is compiled once
+     */
+    public static Matcher<LogItem> messageMatches(String regex) {
+        return messageMatches(Pattern.compile(regex));
+    }
+
+    /**
+     * @param pattern compiled regular expression that the whole message should match
+     * @return matcher for log items of which the message matches the regular expression
+     */
+    public static Matcher<LogItem> messageMatches(Pattern pattern) {
+        return messagePattern(pattern, "pattern", pattern.pattern());
+    }
+
+    /**
+     * @param threadName name of the thread to match
+     * @return matcher for log items that were logged by the given thread
+     */
+    public static Matcher<LogItem> threadName(String threadName) {
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("log item of thread ").appendValue(threadName);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                return threadName.equals(logItem.getThreadName());
+            }
+        };
+    }
+
+    private static Matcher<LogItem> messagePattern(Pattern pattern, String kind, String source) {
+        return new TypeSafeMatcher<LogItem>() {
+            @Override
+            public void describeTo(Description description) {
+                description.appendText(format("log item with a message that matches %s ", kind)).appendValue(source);
+            }
+
+            @Override
+            protected boolean matchesSafely(LogItem logItem) {
+                String message = logItem.getMessage();
+                return message != null && pattern.matcher(message).matches();
+            }
+        };
+    }
+}
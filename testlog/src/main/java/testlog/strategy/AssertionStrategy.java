@@ -3,6 +3,15 @@ package testlog.strategy;
 import testlog.LogItem;
 
 public interface AssertionStrategy {
+    /**
+     * @param logItem log item that did not match the next expectation
+     * @return why the log item did not match, to add to the failure of the log asserter, or null if that goes without
+     * saying
+     */
+    default String describeMismatch(LogItem logItem) {
+        return null;
+    }
+
     String describeRemainingExpectations();
 
     int getRemainingCount();
@@ -0,0 +1,311 @@
+package testlog.strategy;
+
+import org.hamcrest.Matcher;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Strategy that expects log items to be validated by matchers, in order, like {@link MatcherStrategy}, but for large
+ * numbers of matchers. Every expectation declares cheap discriminators up front: a level, a logger (which includes its
+ * descendants) and a literal message prefix, each optional. The expectations are indexed by level, logger and message
+ * prefix, so that a log item that is not the next expectation is only tested against the expectations of its level,
+ * of the loggers it descends from, and of the prefixes that its message starts with, rather than against all remaining
+ * expectations
+ */
+public class IndexedMatcherStrategy implements AssertionStrategy {
+    // index of the expectations without a level
+    private static final int ANY_LEVEL = Level.values().length;
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, Bucket>[] buckets = new Map[ANY_LEVEL + 1];
+
+    private final Queue<Expectation> expectations = new ArrayDeque<>();
+
+    private int remainingCount;
+
+    private long sequence;
+
+    public IndexedMatcherStrategy() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Expect a log item, after the expectations that were added before.
+     *
+     * @param level         level of the log item, or null for any level
+     * @param loggerName    name of the logger of the log item, which includes its descendants, or null for any logger
+     * @param messagePrefix literal text that the message of the log item starts with, or null for any message
+     * @param matcher       matcher that validates the log item further, or null if the discriminators suffice
+     * @return this strategy
+     */
+    public IndexedMatcherStrategy addExpectation(Level level, String loggerName, String messagePrefix,
+                                                 Matcher<LogItem> matcher) {
+        Expectation expectation = new Expectation(++sequence, level, loggerName == null ? "" : loggerName,
+                messagePrefix, matcher);
+        expectations.add(expectation);
+        getBucket(expectation.level == null ? ANY_LEVEL : expectation.level.ordinal(), expectation.loggerName, true)
+                .add(expectation);
+        remainingCount++;
+        return this;
+    }
+
+    @Override
+    public String describeRemainingExpectations() {
+        return expectations.stream()
+                .filter(expectation -> !expectation.removed)
+                .map(Expectation::toString)
+                .collect(joining(", "));
+    }
+
+    @Override
+    public int getRemainingCount() {
+        return remainingCount;
+    }
+
+    @Override
+    public boolean hasRemainingExpectations() {
+        return remainingCount > 0;
+    }
+
+    @Override
+    public boolean matchesNextExpectation(LogItem logItem) {
+        Expectation next = pollNext();
+        if (next == null) {
+            return false;
+        }
+        remove(next);
+        return next.matches(logItem);
+    }
+
+    @Override
+    public void removeLaterExpectationForEfficiency(LogItem logItem) {
+        Expectation first = null;
+        for (Set<Expectation> candidates : getCandidates(logItem)) {
+            first = findFirstMatch(candidates, logItem, first);
+        }
+        if (first != null) {
+            remove(first);
+        }
+    }
+
+    /**
+     * @return number of expectations that a log item is tested against, if it is not the next expectation
+     */
+    int countCandidates(LogItem logItem) {
+        int count = 0;
+        for (Set<Expectation> candidates : getCandidates(logItem)) {
+            count += candidates.size();
+        }
+        return count;
+    }
+
+    private static Expectation findFirstMatch(Set<Expectation> candidates, LogItem logItem, Expectation first) {
+        for (Expectation expectation : candidates) {
+            if (first != null && expectation.sequence > first.sequence) {
+                return first;
+            }
+            if (expectation.matches(logItem)) {
+                return expectation;
+            }
+        }
+        return first;
+    }
+
+    private Bucket getBucket(int levelIndex, String loggerName, boolean create) {
+        return create
+                ? buckets[levelIndex].computeIfAbsent(loggerName, key -> new Bucket())
+                : buckets[levelIndex].get(loggerName);
+    }
+
+    private List<Set<Expectation>> getCandidates(LogItem logItem) {
+        List<Set<Expectation>> candidates = new ArrayList<>();
+        for (int levelIndex : new int[]{logItem.getLevel().ordinal(), ANY_LEVEL}) {
+            if (buckets[levelIndex].isEmpty()) {
+                continue;
+            }
+            // the logger itself and its ancestors, up to the root logger, of which the name is empty
+            String loggerName = logItem.getLoggerName() == null ? "" : logItem.getLoggerName();
+            while (true) {
+                Bucket bucket = getBucket(levelIndex, loggerName, false);
+                if (bucket != null) {
+                    bucket.addCandidates(logItem, candidates);
+                }
+                if (loggerName.isEmpty()) {
+                    break;
+                }
+                int lastDot = loggerName.lastIndexOf('.');
+                loggerName = lastDot < 0 ? "" : loggerName.substring(0, lastDot);
+            }
+        }
+        return candidates;
+    }
+
+    private Expectation pollNext() {
+        Expectation next = expectations.poll();
+        // skip the expectations that were removed for efficiency
+        while (next != null && next.removed) {
+            next = expectations.poll();
+        }
+        return next;
+    }
+
+    private void remove(Expectation expectation) {
+        expectation.removed = true;
+        int levelIndex = expectation.level == null ? ANY_LEVEL : expectation.level.ordinal();
+        Bucket bucket = getBucket(levelIndex, expectation.loggerName, false);
+        bucket.remove(expectation);
+        if (bucket.isEmpty()) {
+            buckets[levelIndex].remove(expectation.loggerName);
+        }
+        remainingCount--;
+    }
+
+    /**
+     * Expectations of a level and logger, by their message prefix. The expectations without a prefix go with the empty
+     * prefix, which every message starts with
+     */
+    private static class Bucket {
+        private final NavigableMap<String, Set<Expectation>> expectationsByPrefix = new TreeMap<>();
+
+        void add(Expectation expectation) {
+            expectationsByPrefix.computeIfAbsent(getPrefix(expectation), prefix -> new LinkedHashSet<>())
+                    .add(expectation);
+        }
+
+        /**
+         * Add the expectations of the prefixes that the message of the log item starts with, to the candidates.
+         */
+        void addCandidates(LogItem logItem, List<Set<Expectation>> candidates) {
+            Set<Expectation> anyMessage = expectationsByPrefix.get("");
+            if (anyMessage != null) {
+                candidates.add(anyMessage);
+            }
+            if (expectationsByPrefix.size() == (anyMessage == null ? 0 : 1) || logItem.getMessage() == null) {
+                return; // no need to render the message
+            }
+
+            // from the longest prefix down: every lookup either finds a prefix of the message, or skips to the part
+            // that the key it finds has in common with the message, since the shorter prefixes are in that part
+            String message = logItem.getMessage();
+            String key = message;
+            while (!key.isEmpty()) {
+                String prefix = expectationsByPrefix.floorKey(key);
+                if (prefix == null || prefix.isEmpty()) {
+                    return;
+                }
+                int commonLength = getCommonLength(prefix, message);
+                if (commonLength == prefix.length()) {
+                    candidates.add(expectationsByPrefix.get(prefix));
+                    key = prefix.substring(0, prefix.length() - 1);
+                } else {
+                    key = message.substring(0, commonLength);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return expectationsByPrefix.isEmpty();
+        }
+
+        void remove(Expectation expectation) {
+            String prefix = getPrefix(expectation);
+            Set<Expectation> expectations = expectationsByPrefix.get(prefix);
+            expectations.remove(expectation);
+            if (expectations.isEmpty()) {
+                expectationsByPrefix.remove(prefix);
+            }
+        }
+
+        private static int getCommonLength(String left, String right) {
+            int length = Math.min(left.length(), right.length());
+            for (int i = 0; i < length; i++) {
+                if (left.charAt(i) != right.charAt(i)) {
+                    return i;
+                }
+            }
+            return length;
+        }
+
+        private static String getPrefix(Expectation expectation) {
+            return expectation.messagePrefix == null ? "" : expectation.messagePrefix;
+        }
+    }
+
+    private static class Expectation {
+        private final Level level;
+
+        private final String loggerName;
+
+        private final Matcher<LogItem> matcher;
+
+        private final String messagePrefix;
+
+        private final long sequence;
+
+        private boolean removed;
+
+        Expectation(long sequence, Level level, String loggerName, String messagePrefix, Matcher<LogItem> matcher) {
+            this.sequence = sequence;
+            this.level = level;
+            this.loggerName = loggerName;
+            this.messagePrefix = messagePrefix;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public String toString() {
+            List<String> parts = new ArrayList<>();
+            if (level != null) {
+                parts.add(level.toString());
+            }
+            if (!loggerName.isEmpty()) {
+                parts.add(format("of %s", loggerName));
+            }
+            if (messagePrefix != null) {
+                parts.add(format("starting with \"%s\"", messagePrefix));
+            }
+            if (matcher != null) {
+                parts.add(matcher.toString());
+            }
+            return parts.isEmpty() ? "any log item" : String.join(" ", parts);
+        }
+
+        /**
+         * Match the discriminators first, since these are cheap, and only then the matcher.
+         */
+        boolean matches(LogItem logItem) {
+            if (level != null && level != logItem.getLevel()) {
+                return false;
+            }
+            if (!loggerName.isEmpty() && !isLoggerOrDescendant(logItem.getLoggerName())) {
+                return false;
+            }
+            if (messagePrefix != null
+                    && (logItem.getMessage() == null || !logItem.getMessage().startsWith(messagePrefix))) {
+                return false;
+            }
+            return matcher == null || matcher.matches(logItem);
+        }
+
+        private boolean isLoggerOrDescendant(String name) {
+            return name != null && name.startsWith(loggerName)
+                    && (name.length() == loggerName.length() || name.charAt(loggerName.length()) == '.');
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package testlog.strategy;
+
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static java.lang.String.format;
+
+/**
+ * Strategy that expects a number of log items per level, in any order. The remaining counts are kept in an array that
+ * is indexed by level, so that every log item is matched in constant time, without locking
+ */
+public class LevelCountsStrategy implements AssertionStrategy {
+    private static final Level[] LEVELS = Level.values();
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(LEVELS.length);
+
+    /**
+     * Constructor.
+     *
+     * @param levels levels of the log items to expect, once for every log item
+     */
+    public LevelCountsStrategy(Level... levels) {
+        addExpectations(levels);
+    }
+
+    /**
+     * Expect one more log item for every given level.
+     *
+     * @param levels levels of the log items to expect, once for every log item
+     * @return this strategy
+     */
+    public LevelCountsStrategy addExpectations(Level... levels) {
+        for (Level level : levels) {
+            counts.incrementAndGet(level.ordinal());
+        }
+        return this;
+    }
+
+    @Override
+    public String describeRemainingExpectations() {
+        List<String> descriptions = new ArrayList<>();
+        for (Level level : LEVELS) {
+            int count = counts.get(level.ordinal());
+            if (count > 0) {
+                descriptions.add(format("%d %s", count, level));
+            }
+        }
+        return String.join(", ", descriptions);
+    }
+
+    @Override
+    public int getRemainingCount() {
+        int remainingCount = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            remainingCount += counts.get(i);
+        }
+        return remainingCount;
+    }
+
+    @Override
+    public boolean hasRemainingExpectations() {
+        for (int i = 0; i < counts.length(); i++) {
+            if (counts.get(i) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean matchesNextExpectation(LogItem logItem) {
+        int index = logItem.getLevel().ordinal();
+        int count;
+        do {
+            count = counts.get(index);
+            if (count == 0) {
+                return false;
+            }
+        } while (!counts.compareAndSet(index, count, count - 1));
+        return true;
+    }
+
+    @Override
+    public void removeLaterExpectationForEfficiency(LogItem logItem) {
+        ; // a log item that did not match leaves no expectation of its level to remove
+    }
+
+    /**
+     * Expect the given number of log items more for each of the given levels.
+     *
+     * @param count  number of log items to expect per level
+     * @param levels levels of the log items to expect
+     * @return this strategy
+     */
+    public LevelCountsStrategy withCount(int count, Level... levels) {
+        if (count < 1) {
+            throw new IllegalArgumentException(format("Expected count should be at least 1, was %d", count));
+        }
+        for (Level level : levels) {
+            counts.addAndGet(level.ordinal(), count);
+        }
+        return this;
+    }
+}
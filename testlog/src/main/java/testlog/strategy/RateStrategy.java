@@ -0,0 +1,151 @@
+package testlog.strategy;
+
+import org.hamcrest.Matcher;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Strategy that tolerates log items of the given levels up to a rate, over a sliding window of time, e.g. for load and
+ * soak tests. The rate is either a maximum number of log items per window, or a maximum ratio to the base log items
+ * (like those of requests) in the same window. The log item that exceeds the rate fails the log asserter, and the peak
+ * rate that was observed is reported with it. The log items are counted in a ring of time buckets, without locking.
+ * That makes the window approximate: it consists of ten slices of a tenth of its duration, in whole milliseconds, of
+ * which the current one has only partly passed, so it covers the last 9 to 10 slices
+ */
+public class RateStrategy implements AssertionStrategy {
+    private final SlidingWindowCounter baseCounter;
+
+    private final Matcher<LogItem> baseMatcher;
+
+    private final SlidingWindowCounter counter;
+
+    private final Set<Level> levels;
+
+    private final int maximumCount;
+
+    private final double maximumRatio;
+
+    // the bits of a non-negative double order like the double itself
+    private final AtomicLong peakRate = new AtomicLong();
+
+    private final Duration window;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumCount maximum number of log items of the given levels in any window
+     * @param window       duration of the sliding window
+     * @param levels       levels of the log items to tolerate
+     */
+    public RateStrategy(int maximumCount, Duration window, Level... levels) {
+        this(maximumCount, Double.NaN, null, window, levels);
+        if (maximumCount < 1) {
+            throw new IllegalArgumentException(format("Maximum count should be at least 1, was %d", maximumCount));
+        }
+    }
+
+    /**
+     * Constructor. The base log items are tolerated as well, at any rate.
+     *
+     * @param maximumRatio maximum ratio of the log items of the given levels to the base log items in any window
+     * @param baseMatcher  matcher of the base log items, like those that are logged for every request
+     * @param window       duration of the sliding window
+     * @param levels       levels of the log items to tolerate
+     */
+    public RateStrategy(double maximumRatio, Matcher<LogItem> baseMatcher, Duration window, Level... levels) {
+        this(0, maximumRatio, baseMatcher, window, levels);
+        if (!(maximumRatio > 0)) {
+            throw new IllegalArgumentException(format("Maximum ratio should be above 0, was %s", maximumRatio));
+        }
+    }
+
+    private RateStrategy(int maximumCount, double maximumRatio, Matcher<LogItem> baseMatcher, Duration window,
+                         Level... levels) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException(format("Window should be positive, was %s", window));
+        }
+        this.baseMatcher = baseMatcher;
+        this.baseCounter = baseMatcher == null ? null : new SlidingWindowCounter(window);
+        this.counter = new SlidingWindowCounter(window);
+        this.levels = levels.length == 0 ? EnumSet.noneOf(Level.class) : EnumSet.copyOf(Arrays.asList(levels));
+        this.maximumCount = maximumCount;
+        this.maximumRatio = maximumRatio;
+        this.window = window;
+    }
+
+    @Override
+    public String describeMismatch(LogItem logItem) {
+        return levels.contains(logItem.getLevel())
+               ? format("exceeds %s, peaked at %s", describeRemainingExpectations(), describeRate(getPeakRate()))
+               : null;
+    }
+
+    @Override
+    public String describeRemainingExpectations() {
+        return format("at most %s", describeRate(baseMatcher == null ? maximumCount : maximumRatio));
+    }
+
+    /**
+     * @return highest rate that was observed, in log items per window, or as a ratio to the base log items
+     */
+    public double getPeakRate() {
+        return Double.longBitsToDouble(peakRate.get());
+    }
+
+    @Override
+    public int getRemainingCount() {
+        return 0;
+    }
+
+    @Override
+    public boolean hasRemainingExpectations() {
+        return false; // a rate is tolerated, not expected
+    }
+
+    @Override
+    public boolean matchesNextExpectation(LogItem logItem) {
+        long timestamp = logItem.getTimestamp() == 0 ? System.currentTimeMillis() : logItem.getTimestamp();
+        if (levels.contains(logItem.getLevel())) {
+            int count = counter.increment(timestamp);
+            if (baseMatcher == null) {
+                return updatePeakRate(count) <= maximumCount;
+            }
+            int baseCount = baseCounter.count(timestamp);
+            double ratio = baseCount == 0 ? Double.POSITIVE_INFINITY : (double) count / baseCount;
+            return updatePeakRate(ratio) <= maximumRatio;
+        }
+        if (baseMatcher != null && baseMatcher.matches(logItem)) {
+            baseCounter.increment(timestamp);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeLaterExpectationForEfficiency(LogItem logItem) {
+        ; // the log item that exceeds the rate is counted already, and it has no expectation to remove
+    }
+
+    private String describeRate(double rate) {
+        String levelNames = levels.stream().map(Level::toString).collect(Collectors.joining("/"));
+        return baseMatcher == null
+                ? format("%d %s per %dms", (long) rate, levelNames, window.toMillis())
+                : format(Locale.ROOT, "%.2f%% %s of the base log items per %dms", rate * 100, levelNames,
+                        window.toMillis());
+    }
+
+    private double updatePeakRate(double rate) {
+        peakRate.accumulateAndGet(Double.doubleToLongBits(rate), Math::max);
+        return rate;
+    }
+}
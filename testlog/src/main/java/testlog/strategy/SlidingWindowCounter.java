@@ -0,0 +1,86 @@
+package testlog.strategy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter of events in a sliding window of time, as a ring of buckets that each count the events of one slice of the
+ * window. A bucket packs the slice that it counts for together with its count into a single long, so that it is both
+ * reset and incremented by a single compare and set, without locking. A bucket that counts nothing is empty, whatever
+ * its slice, since the slice of a bucket that was never used says nothing about the time
+ */
+class SlidingWindowCounter {
+    private static final int BUCKET_COUNT = 10;
+
+    private static final int COUNT_BITS = 24;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final long SLICE_MASK = -1L >>> COUNT_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final long sliceMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param window duration of the window, which is divided into slices of at least one millisecond
+     */
+    SlidingWindowCounter(Duration window) {
+        sliceMillis = Math.max(1, window.toMillis() / BUCKET_COUNT);
+    }
+
+    /**
+     * @param timestamp time at which the window ends, in milliseconds since the epoch
+     * @return number of events in the window
+     */
+    int count(long timestamp) {
+        long slice = getSlice(timestamp);
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = buckets.get(i);
+            if (isWithinWindow(bucket >>> COUNT_BITS, slice)) {
+                count += bucket & COUNT_MASK;
+            }
+        }
+        return (int) count;
+    }
+
+    /**
+     * Count an event, and return the number of events in the window that ends with it.
+     *
+     * @param timestamp time of the event, in milliseconds since the epoch
+     * @return number of events in the window, including this one
+     */
+    int increment(long timestamp) {
+        long slice = getSlice(timestamp);
+        int index = (int) (slice % BUCKET_COUNT);
+        long bucket;
+        long updated;
+        do {
+            bucket = buckets.get(index);
+            long bucketSlice = bucket >>> COUNT_BITS;
+            if ((bucket & COUNT_MASK) != 0 && (bucketSlice == slice || isAhead(bucketSlice, slice))) {
+                // an event that arrives late, after its bucket moved on, is counted in the later slice
+                updated = (bucket & COUNT_MASK) == COUNT_MASK ? bucket : bucket + 1;
+            } else {
+                updated = (slice << COUNT_BITS) | 1;
+            }
+        } while (!buckets.compareAndSet(index, bucket, updated));
+        return count(timestamp);
+    }
+
+    private long getSlice(long timestamp) {
+        return (timestamp / sliceMillis) & SLICE_MASK;
+    }
+
+    private static boolean isAhead(long bucketSlice, long slice) {
+        // the slices wrap around, which is far enough apart to take the difference in either direction
+        return ((bucketSlice - slice) & SLICE_MASK) <= SLICE_MASK / 2;
+    }
+
+    private static boolean isWithinWindow(long bucketSlice, long slice) {
+        return ((slice - bucketSlice) & SLICE_MASK) < BUCKET_COUNT || isAhead(bucketSlice, slice);
+    }
+}
@@ -0,0 +1,75 @@
+package testlog;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CaptureScopeTest {
+    @Test
+    public void testClose() {
+        CaptureScope outer = CaptureScope.open();
+        CaptureScope subject = CaptureScope.open();
+        assertSame(subject, CaptureScope.getCurrent());
+
+        subject.close();
+        assertSame(outer, CaptureScope.getCurrent());
+
+        outer.close();
+        assertNull(CaptureScope.getCurrent());
+    }
+
+    @Test
+    public void testCloseFromOtherThread() throws InterruptedException {
+        CaptureScope subject = CaptureScope.open();
+
+        Thread closer = new Thread(subject::close);
+        closer.start();
+        closer.join();
+
+        assertNull(CaptureScope.getCurrent());
+    }
+
+    @Test
+    public void testCloseInherited() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicReference<CaptureScope> inherited = new AtomicReference<>();
+        AtomicReference<CaptureScope> afterClose = new AtomicReference<>();
+        CaptureScope subject = CaptureScope.open();
+        Thread child = new Thread(() -> {
+            inherited.set(CaptureScope.getCurrent());
+            started.countDown();
+            try {
+                closed.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            afterClose.set(CaptureScope.getCurrent());
+        });
+        child.start();
+        started.await();
+
+        subject.close();
+        closed.countDown();
+        child.join();
+
+        assertSame(subject, inherited.get());
+        assertNull(afterClose.get());
+    }
+
+    @Test
+    public void testCloseOuterFirst() {
+        CaptureScope outer = CaptureScope.open();
+        CaptureScope subject = CaptureScope.open();
+
+        outer.close();
+        assertSame(subject, CaptureScope.getCurrent());
+
+        subject.close();
+        assertNull(CaptureScope.getCurrent());
+    }
+}
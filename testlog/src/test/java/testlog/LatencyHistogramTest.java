@@ -0,0 +1,79 @@
+package testlog;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LatencyHistogramTest {
+    @Test
+    public void testGetPercentile() {
+        LatencyHistogram subject = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            subject.record(Duration.ofMillis(i));
+        }
+
+        assertEquals(100, subject.getCount());
+        assertEquals(Duration.ofMillis(100), subject.getMaximum());
+        assertEquals(Duration.ofMillis(100), subject.getPercentile(100));
+        assertWithinPrecision(Duration.ofMillis(1), subject.getPercentile(0));
+        assertWithinPrecision(Duration.ofMillis(50), subject.getPercentile(50));
+        assertWithinPrecision(Duration.ofMillis(99), subject.getPercentile(99));
+    }
+
+    @Test
+    public void testGetPercentileExact() {
+        LatencyHistogram subject = new LatencyHistogram();
+        subject.record(Duration.ofNanos(5));
+        subject.record(Duration.ofNanos(63));
+        subject.record(Duration.ofNanos(-1));
+
+        assertEquals(Duration.ZERO, subject.getPercentile(0));
+        assertEquals(Duration.ofNanos(5), subject.getPercentile(50));
+        assertEquals(Duration.ofNanos(63), subject.getPercentile(100));
+    }
+
+    @Test
+    public void testGetPercentileInvalid() {
+        try {
+            new LatencyHistogram().getPercentile(101);
+            fail("expected an exception for the invalid percentile");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Percentile should be from 0 to 100, was 101.0", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetPercentileWithoutLatencies() {
+        LatencyHistogram subject = new LatencyHistogram();
+
+        assertEquals(0, subject.getCount());
+        assertEquals(Duration.ZERO, subject.getPercentile(99));
+        assertEquals(Duration.ZERO, subject.getMaximum());
+    }
+
+    @Test
+    public void testRecordLongest() {
+        LatencyHistogram subject = new LatencyHistogram();
+        subject.record(Duration.ofNanos(Long.MAX_VALUE));
+
+        assertEquals(Duration.ofNanos(Long.MAX_VALUE), subject.getPercentile(50));
+    }
+
+    @Test
+    public void testToString() {
+        LatencyHistogram subject = new LatencyHistogram();
+        subject.record(Duration.ofMillis(2));
+        subject.record(Duration.ofMillis(3));
+
+        assertEquals("2 latencies, p50 2.032ms, p99 3.000ms, max 3.000ms", subject.toString());
+    }
+
+    private static void assertWithinPrecision(Duration expected, Duration actual) {
+        assertTrue(actual + " should be close to " + expected, actual.compareTo(expected) >= 0
+                && actual.toNanos() <= expected.toNanos() * 1.04);
+    }
+}
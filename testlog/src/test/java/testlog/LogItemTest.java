@@ -0,0 +1,53 @@
+package testlog;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LogItemTest {
+    @Test
+    public void testGetContextNotKnown() {
+        LogItem subject = new LogItem(Level.WARN, "warn statement", null);
+        assertNull(subject.getContext());
+        assertEquals(emptyList(), subject.getMarkers());
+        assertEquals(emptyMap(), subject.getMdc());
+        assertNull(subject.getThreadName());
+        assertEquals(0, subject.getTimestamp());
+    }
+
+    @Test
+    public void testGetLoggerName() {
+        LogItem subject = new LogItem(Level.WARN, "com.acme", () -> "warn statement", null);
+        assertEquals("com.acme", subject.getLoggerName());
+        assertEquals("warn statement", subject.getMessage());
+
+        assertNull(new LogItem(Level.WARN, "warn statement", null).getLoggerName());
+    }
+
+    @Test
+    public void testGetMessage() {
+        LogItem subject = new LogItem(Level.WARN, "warn statement", null);
+        assertEquals("warn statement", subject.getMessage());
+    }
+
+    @Test
+    public void testGetMessageRenderedLazilyOnce() {
+        AtomicInteger renderCount = new AtomicInteger();
+        LogItem subject = new LogItem(Level.WARN, () -> {
+            renderCount.incrementAndGet();
+            return "warn statement";
+        }, null);
+        assertEquals(Level.WARN, subject.getLevel());
+        assertEquals(0, renderCount.get());
+
+        assertEquals("warn statement", subject.getMessage());
+        assertEquals("warn statement", subject.getMessage());
+        assertEquals(1, renderCount.get());
+    }
+}
@@ -0,0 +1,115 @@
+package testlog.history;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BoundedHistoryTest {
+    @Test
+    public void testClear() {
+        BoundedHistory subject = new BoundedHistory(1);
+        subject.add(new LogItem(Level.INFO, "info 1", null));
+        subject.add(new LogItem(Level.INFO, "info 2", null));
+
+        subject.clear();
+
+        assertEquals(0, subject.size());
+        assertEquals(0, subject.getDroppedCount());
+        subject.add(new LogItem(Level.INFO, "info 3", null));
+        assertEquals(asList("1:info 3"), render(subject));
+    }
+
+    @Test
+    public void testDropOldestPerLevel() {
+        BoundedHistory subject = new BoundedHistory(2);
+        subject.add(new LogItem(Level.DEBUG, "debug 1", null));
+        subject.add(new LogItem(Level.WARN, "warn 1", null));
+        subject.add(new LogItem(Level.DEBUG, "debug 2", null));
+        subject.add(new LogItem(Level.DEBUG, "debug 3", null));
+        subject.add(new LogItem(Level.WARN, "warn 2", null));
+
+        assertEquals(asList("2:warn 1", "3:debug 2", "4:debug 3", "5:warn 2"), render(subject));
+        assertEquals(1, subject.getDroppedCount());
+        assertEquals(4, subject.size());
+    }
+
+    @Test
+    public void testGet() {
+        BoundedHistory subject = new BoundedHistory(1);
+        subject.add(new LogItem(Level.INFO, "info 1", null));
+        subject.add(new LogItem(Level.WARN, "warn 1", null));
+        subject.add(new LogItem(Level.INFO, "info 2", null));
+
+        assertNull(subject.get(1));
+        assertEquals("warn 1", subject.get(2).getMessage());
+        assertEquals("info 2", subject.get(3).getMessage());
+        assertNull(subject.get(4));
+    }
+
+    @Test
+    public void testGrowBeyondInitialCapacity() {
+        BoundedHistory subject = new BoundedHistory(100);
+        for (int i = 1; i <= 150; i++) {
+            subject.add(new LogItem(Level.INFO, "info " + i, null));
+        }
+
+        List<String> actual = render(subject);
+        assertEquals(100, actual.size());
+        assertEquals("51:info 51", actual.get(0));
+        assertEquals("150:info 150", actual.get(99));
+        assertEquals(50, subject.getDroppedCount());
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        try {
+            new BoundedHistory(0);
+            fail("expected an exception for the invalid capacity");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Capacity should be at least 1, was 0", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testWithCapacity() {
+        BoundedHistory subject = new BoundedHistory(1).withCapacity(BoundedHistory.UNLIMITED, Level.WARN, Level.ERROR);
+        for (int i = 1; i <= 20; i++) {
+            subject.add(new LogItem(Level.INFO, "info " + i, null));
+            subject.add(new LogItem(Level.WARN, "warn " + i, null));
+        }
+
+        assertEquals(21, subject.size());
+        assertEquals(19, subject.getDroppedCount());
+        List<String> actual = render(subject);
+        assertEquals("2:warn 1", actual.get(0));
+        assertEquals("39:info 20", actual.get(19));
+        assertEquals("40:warn 20", actual.get(20));
+    }
+
+    @Test
+    public void testWithCapacityShrinks() {
+        BoundedHistory subject = new BoundedHistory(10);
+        subject.add(new LogItem(Level.INFO, "info 1", null));
+        subject.add(new LogItem(Level.INFO, "info 2", null));
+        subject.add(new LogItem(Level.INFO, "info 3", null));
+
+        subject.withCapacity(1, Level.INFO);
+
+        assertEquals(asList("3:info 3"), render(subject));
+        assertEquals(2, subject.getDroppedCount());
+    }
+
+    private List<String> render(History history) {
+        List<String> rendered = new ArrayList<>();
+        history.forEach((logItem, sequence) -> rendered.add(sequence + ":" + logItem.getMessage()));
+        return rendered;
+    }
+}
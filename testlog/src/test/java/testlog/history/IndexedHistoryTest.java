@@ -0,0 +1,129 @@
+package testlog.history;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedHistoryTest {
+    @Test
+    public void testClear() {
+        IndexedHistory subject = new IndexedHistory(new UnboundedHistory());
+        subject.add(logItem(Level.WARN, "com.acme", "warn 1"));
+
+        subject.clear();
+
+        assertEquals(0, subject.size());
+        assertEquals(0, subject.query().level(Level.WARN).count());
+        subject.add(logItem(Level.WARN, "com.acme", "warn 2"));
+        assertEquals(asList("warn 2"), render(subject.query().logger("com.acme").list()));
+    }
+
+    @Test
+    public void testGet() {
+        IndexedHistory subject = new IndexedHistory(new UnboundedHistory());
+        subject.add(logItem(Level.INFO, "com.acme", "info 1"));
+
+        assertEquals("info 1", subject.get(1).getMessage());
+        assertNull(subject.get(2));
+    }
+
+    @Test
+    public void testQueryAll() {
+        IndexedHistory subject = createSubject(new UnboundedHistory());
+
+        assertEquals(6, subject.query().count());
+        assertEquals(6, subject.query().list().size());
+    }
+
+    @Test
+    public void testQueryDroppedLogItems() {
+        IndexedHistory subject = createSubject(new BoundedHistory(1));
+
+        assertEquals(asList("warn 3"), render(subject.query().level(Level.WARN).list()));
+        assertEquals(1, subject.query().level(Level.WARN).count());
+        assertEquals(2, subject.query().logger("com.acme.billing").count());
+    }
+
+    @Test
+    public void testQueryDroppedLogItemsAreForgotten() {
+        IndexedHistory subject = new IndexedHistory(new BoundedHistory(2).withCapacity(1, Level.WARN));
+        for (int i = 1; i <= 1000; i++) {
+            subject.add(logItem(Level.INFO, "com.acme.logger" + i % 10, "info " + i));
+            subject.add(logItem(Level.WARN, "com.acme", "warn " + i));
+        }
+
+        assertEquals(asList("info 999", "info 1000", "warn 1000"), render(subject.query().list()));
+        assertEquals(asList("warn 1000"), render(subject.query().level(Level.WARN).logger("com.acme").list()));
+        // the index is rebuilt once more log items are dropped than retained, rather than growing with every log item
+        assertTrue(subject.select(new Level[]{Level.INFO}, null).length <= 2 * subject.size());
+        assertTrue(subject.select(null, "com.acme").length <= 2 * subject.size());
+    }
+
+    @Test
+    public void testQueryLevel() {
+        IndexedHistory subject = createSubject(new UnboundedHistory());
+
+        assertEquals(asList("warn 1", "warn 2", "warn 3"), render(subject.query().level(Level.WARN).list()));
+        assertEquals(4, subject.query().level(Level.WARN, Level.ERROR).count());
+        assertEquals(1, subject.query().level(Level.WARN, Level.ERROR).level(Level.ERROR).count());
+    }
+
+    @Test
+    public void testQueryLogger() {
+        IndexedHistory subject = createSubject(new UnboundedHistory());
+
+        assertEquals(asList("warn 1", "info 1", "error 1", "warn 3"),
+                render(subject.query().logger("com.acme").list()));
+        assertEquals(asList("info 1", "error 1"), render(subject.query().logger("com.acme.billing").list()));
+        assertEquals(6, subject.query().logger("").count());
+        assertEquals(0, subject.query().logger("com.acm").count());
+    }
+
+    @Test
+    public void testQueryLoggerAndLevel() {
+        IndexedHistory subject = createSubject(new UnboundedHistory());
+
+        assertEquals(asList("warn 1", "warn 3"), render(subject.query().level(Level.WARN).logger("com.acme").list()));
+        assertEquals(1, subject.query().level(Level.ERROR).logger("com.acme.billing").count());
+    }
+
+    @Test
+    public void testQueryMessageContains() {
+        IndexedHistory subject = createSubject(new UnboundedHistory());
+
+        assertEquals(asList("warn 3"), render(subject.query().level(Level.WARN).messageContains("3").list()));
+        assertEquals(1, subject.query().messageContains("info 2").count());
+        assertEquals(0, subject.query().logger("com.acme").messageContains("info 2").count());
+    }
+
+    private static IndexedHistory createSubject(History history) {
+        IndexedHistory subject = new IndexedHistory(history);
+        subject.add(logItem(Level.INFO, null, "info 2"));
+        subject.add(logItem(Level.WARN, "com.acme", "warn 1"));
+        subject.add(logItem(Level.INFO, "com.acme.billing", "info 1"));
+        subject.add(logItem(Level.WARN, "com.acmesoft", "warn 2"));
+        subject.add(logItem(Level.ERROR, "com.acme.billing.invoice", "error 1"));
+        subject.add(logItem(Level.WARN, "com.acme", "warn 3"));
+        return subject;
+    }
+
+    private static LogItem logItem(Level level, String loggerName, String message) {
+        return new LogItem(level, loggerName, () -> message, null);
+    }
+
+    private static List<String> render(List<LogItem> logItems) {
+        List<String> rendered = new ArrayList<>();
+        for (LogItem logItem : logItems) {
+            rendered.add(logItem.getMessage());
+        }
+        return rendered;
+    }
+}
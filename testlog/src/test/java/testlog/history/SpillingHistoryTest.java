@@ -0,0 +1,120 @@
+package testlog.history;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SpillingHistoryTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testClear() {
+        SpillingHistory subject = new SpillingHistory(1, temporaryFolder.getRoot().toPath());
+        subject.add(new LogItem(Level.INFO, "info 1", null));
+        subject.add(new LogItem(Level.INFO, "info 2", null));
+
+        subject.clear();
+
+        assertEquals(0, subject.size());
+        subject.add(new LogItem(Level.INFO, "info 3", null));
+        subject.add(new LogItem(Level.INFO, "info 4", null));
+        assertEquals(asList("1:info 3", "2:info 4"), render(subject));
+        subject.close();
+    }
+
+    @Test
+    public void testClose() {
+        SpillingHistory subject = new SpillingHistory(0, temporaryFolder.getRoot().toPath());
+        subject.add(new LogItem(Level.INFO, "info 1", null));
+        assertEquals(1, listFiles().length);
+
+        subject.close();
+
+        assertEquals(0, listFiles().length);
+        assertEquals(0, subject.size());
+        subject.add(new LogItem(Level.INFO, "info 2", null));
+        assertEquals(asList("1:info 2"), render(subject));
+        subject.close();
+    }
+
+    @Test
+    public void testGet() {
+        SpillingHistory subject = new SpillingHistory(1, temporaryFolder.getRoot().toPath());
+        subject.add(new LogItem(Level.INFO, "info 1", null));
+        subject.add(new LogItem(Level.INFO, "com.acme", () -> "info 2", null));
+        subject.add(new LogItem(Level.WARN, "com.acme", () -> "warn 1", null));
+
+        assertNull(subject.get(0));
+        assertEquals("info 1", subject.get(1).getMessage());
+        assertEquals("info 2", subject.get(2).getMessage());
+        assertEquals("com.acme", subject.get(3).getLoggerName());
+        assertEquals(Level.WARN, subject.get(3).getLevel());
+        assertNull(subject.get(4));
+        subject.close();
+    }
+
+    @Test
+    public void testInvalidHeapCapacity() {
+        try {
+            new SpillingHistory(-1);
+            fail("expected an exception for the invalid heap capacity");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Heap capacity should not be negative, was -1", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testSpill() {
+        SpillingHistory subject = new SpillingHistory(2, temporaryFolder.getRoot().toPath());
+        for (int i = 1; i <= 5; i++) {
+            subject.add(new LogItem(Level.INFO, "info " + i, null));
+        }
+
+        assertEquals(asList("1:info 1", "2:info 2", "3:info 3", "4:info 4", "5:info 5"), render(subject));
+        assertEquals(5, subject.size());
+        assertEquals(3, subject.getSpilledCount());
+        assertEquals(0, subject.getDroppedCount());
+        subject.close();
+    }
+
+    @Test
+    public void testSpillLevelsAndThrowables() {
+        SpillingHistory subject = new SpillingHistory(0, temporaryFolder.getRoot().toPath());
+        Exception exception = new Exception("something wrong");
+        subject.add(new LogItem(Level.ERROR, "error ✓", exception));
+        subject.add(new LogItem(Level.DEBUG, (String) null, null));
+
+        List<LogItem> actual = new ArrayList<>();
+        subject.forEach((logItem, sequence) -> actual.add(logItem));
+        assertEquals(Level.ERROR, actual.get(0).getLevel());
+        assertEquals("error ✓", actual.get(0).getMessage());
+        assertSame(exception, actual.get(0).getThrowable());
+        assertEquals(Level.DEBUG, actual.get(1).getLevel());
+        assertNull(actual.get(1).getMessage());
+        assertNull(actual.get(1).getThrowable());
+        subject.close();
+    }
+
+    private File[] listFiles() {
+        return temporaryFolder.getRoot().listFiles();
+    }
+
+    private List<String> render(History history) {
+        List<String> rendered = new ArrayList<>();
+        history.forEach((logItem, sequence) -> rendered.add(sequence + ":" + logItem.getMessage()));
+        return rendered;
+    }
+}
@@ -0,0 +1,94 @@
+package testlog.impl;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+import testlog.history.UnboundedHistory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CaptureMetricsTest {
+    @After
+    public void tearDown() {
+        CaptureMetrics.unregister();
+        CaptureMetrics.getInstance().reset();
+    }
+
+    @Test
+    public void testCount() {
+        CaptureMetrics subject = CaptureMetrics.getInstance();
+        CaptureMetrics.register();
+        subject.reset();
+
+        CaptureMetrics.count(CaptureMetrics.Counter.SEEN, Level.WARN);
+        CaptureMetrics.count(CaptureMetrics.Counter.SEEN, Level.WARN);
+        CaptureMetrics.count(CaptureMetrics.Counter.MUTED, Level.DEBUG);
+        CaptureMetrics.addAssertWaitNanos(5);
+        CaptureMetrics.addLogNanos(7);
+
+        assertEquals(Long.valueOf(2), subject.getSeenCounts().get("WARN"));
+        assertEquals(Long.valueOf(0), subject.getSeenCounts().get("ERROR"));
+        assertEquals(Long.valueOf(1), subject.getMutedCounts().get("DEBUG"));
+        assertEquals(5, subject.getAssertWaitNanos());
+        assertEquals(7, subject.getLogNanos());
+
+        subject.reset();
+        assertEquals(Long.valueOf(0), subject.getSeenCounts().get("WARN"));
+        assertEquals(0, subject.getLogNanos());
+    }
+
+    @Test
+    public void testCountNotRegistered() {
+        CaptureMetrics.count(CaptureMetrics.Counter.SEEN, Level.WARN);
+        CaptureMetrics.addLogNanos(7);
+
+        assertFalse(CaptureMetrics.isEnabled());
+        assertEquals(Long.valueOf(0), CaptureMetrics.getInstance().getSeenCounts().get("WARN"));
+        assertEquals(0, CaptureMetrics.getInstance().getLogNanos());
+    }
+
+    @Test
+    public void testRegister() throws JMException {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(CaptureMetrics.OBJECT_NAME);
+
+        CaptureMetrics.register();
+        CaptureMetrics.register();
+        assertTrue(CaptureMetrics.isEnabled());
+        assertTrue(mBeanServer.isRegistered(objectName));
+
+        CaptureMetrics.count(CaptureMetrics.Counter.REJECTED, Level.ERROR);
+        TabularData rejectedCounts = (TabularData) mBeanServer.getAttribute(objectName, "RejectedCounts");
+        CompositeData errorCount = rejectedCounts.get(new Object[]{"ERROR"});
+        assertEquals(1L, errorCount.get("value"));
+
+        CaptureMetrics.unregister();
+        CaptureMetrics.unregister();
+        assertFalse(CaptureMetrics.isEnabled());
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
+    @Test
+    public void testTrackHistory() {
+        CaptureMetrics subject = CaptureMetrics.getInstance();
+        UnboundedHistory history = new UnboundedHistory();
+        history.add(new LogItem(Level.WARN, "warn statement", null));
+        long historySize = subject.getHistorySize();
+
+        CaptureMetrics.trackHistory(history);
+        assertEquals(historySize + 1, subject.getHistorySize());
+
+        CaptureMetrics.untrackHistory(history);
+        assertEquals(historySize, subject.getHistorySize());
+    }
+}
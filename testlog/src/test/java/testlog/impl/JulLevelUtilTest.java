@@ -0,0 +1,84 @@
+package testlog.impl;
+
+import org.junit.Test;
+
+import java.util.logging.Level;
+
+import static org.junit.Assert.assertEquals;
+
+public class JulLevelUtilTest {
+    @Test
+    public void testBecauseWeLoveCoverage() {
+        new JulLevelUtil();
+    }
+
+    @Test
+    public void testConvertLevelAll() {
+        assertEquals(org.slf4j.event.Level.TRACE, JulLevelUtil.convertLevel(Level.ALL));
+    }
+
+    @Test
+    public void testConvertLevelBetweenFinerAndFine() {
+        assertEquals(org.slf4j.event.Level.DEBUG, JulLevelUtil.convertLevel(new CustomLevel(401)));
+    }
+
+    @Test
+    public void testConvertLevelBetweenWarningAndSevere() {
+        assertEquals(org.slf4j.event.Level.ERROR, JulLevelUtil.convertLevel(new CustomLevel(901)));
+    }
+
+    @Test
+    public void testConvertLevelConfig() {
+        assertEquals(org.slf4j.event.Level.INFO, JulLevelUtil.convertLevel(Level.CONFIG));
+    }
+
+    @Test
+    public void testConvertLevelFine() {
+        assertEquals(org.slf4j.event.Level.DEBUG, JulLevelUtil.convertLevel(Level.FINE));
+    }
+
+    @Test
+    public void testConvertLevelFiner() {
+        assertEquals(org.slf4j.event.Level.TRACE, JulLevelUtil.convertLevel(Level.FINER));
+    }
+
+    @Test
+    public void testConvertLevelFinest() {
+        assertEquals(org.slf4j.event.Level.TRACE, JulLevelUtil.convertLevel(Level.FINEST));
+    }
+
+    @Test
+    public void testConvertLevelInfo() {
+        assertEquals(org.slf4j.event.Level.INFO, JulLevelUtil.convertLevel(Level.INFO));
+    }
+
+    @Test
+    public void testConvertLevelOff() {
+        assertEquals(org.slf4j.event.Level.ERROR, JulLevelUtil.convertLevel(Level.OFF));
+    }
+
+    @Test
+    public void testConvertLevelSevere() {
+        assertEquals(org.slf4j.event.Level.ERROR, JulLevelUtil.convertLevel(Level.SEVERE));
+    }
+
+    @Test
+    public void testConvertLevelWarning() {
+        assertEquals(org.slf4j.event.Level.WARN, JulLevelUtil.convertLevel(Level.WARNING));
+    }
+
+    @Test
+    public void testGetThreshold() {
+        assertEquals(901, JulLevelUtil.getThreshold(org.slf4j.event.Level.ERROR));
+        assertEquals(801, JulLevelUtil.getThreshold(org.slf4j.event.Level.WARN));
+        assertEquals(501, JulLevelUtil.getThreshold(org.slf4j.event.Level.INFO));
+        assertEquals(401, JulLevelUtil.getThreshold(org.slf4j.event.Level.DEBUG));
+        assertEquals(Integer.MIN_VALUE, JulLevelUtil.getThreshold(org.slf4j.event.Level.TRACE));
+    }
+
+    private static class CustomLevel extends Level {
+        CustomLevel(int value) {
+            super("CUSTOM", value);
+        }
+    }
+}
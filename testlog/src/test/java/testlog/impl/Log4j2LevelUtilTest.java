@@ -0,0 +1,60 @@
+package testlog.impl;
+
+import org.apache.logging.log4j.Level;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class Log4j2LevelUtilTest {
+    @Test
+    public void testBecauseWeLoveCoverage() {
+        new Log4j2LevelUtil();
+    }
+
+    @Test
+    public void testConvertLevelDebug() {
+        assertEquals(org.slf4j.event.Level.DEBUG, Log4j2LevelUtil.convertLevel(Level.DEBUG));
+    }
+
+    @Test
+    public void testConvertLevelError() {
+        assertEquals(org.slf4j.event.Level.ERROR, Log4j2LevelUtil.convertLevel(Level.ERROR));
+    }
+
+    @Test
+    public void testConvertLevelFatal() {
+        assertEquals(org.slf4j.event.Level.ERROR, Log4j2LevelUtil.convertLevel(Level.FATAL));
+    }
+
+    @Test
+    public void testConvertLevelInfo() {
+        assertEquals(org.slf4j.event.Level.INFO, Log4j2LevelUtil.convertLevel(Level.INFO));
+    }
+
+    @Test
+    public void testConvertLevelTrace() {
+        assertEquals(org.slf4j.event.Level.TRACE, Log4j2LevelUtil.convertLevel(Level.TRACE));
+    }
+
+    @Test
+    public void testConvertLevelAll() {
+        assertEquals(org.slf4j.event.Level.TRACE, Log4j2LevelUtil.convertLevel(Level.ALL));
+    }
+
+    @Test
+    public void testConvertLevelCustom() {
+        assertEquals(org.slf4j.event.Level.WARN, Log4j2LevelUtil.convertLevel(Level.forName("NOTICE", 250)));
+        assertEquals(org.slf4j.event.Level.INFO, Log4j2LevelUtil.convertLevel(Level.forName("VERBOSE", 350)));
+        assertEquals(org.slf4j.event.Level.TRACE, Log4j2LevelUtil.convertLevel(Level.forName("FINEST", 700)));
+    }
+
+    @Test
+    public void testConvertLevelOff() {
+        assertEquals(org.slf4j.event.Level.ERROR, Log4j2LevelUtil.convertLevel(Level.OFF));
+    }
+
+    @Test
+    public void testConvertLevelWarn() {
+        assertEquals(org.slf4j.event.Level.WARN, Log4j2LevelUtil.convertLevel(Level.WARN));
+    }
+}
@@ -0,0 +1,104 @@
+package testlog.impl;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class LogDispatcherTest {
+    @Test
+    public void testGetMinimumLevel() {
+        LogDispatcher subject = new LogDispatcher();
+        assertEquals(Level.ERROR, subject.getMinimumLevel());
+
+        subject.add(new CallbackForTest(Level.WARN));
+        subject.add(new CallbackForTest(Level.DEBUG));
+        assertEquals(Level.DEBUG, subject.getMinimumLevel());
+    }
+
+    @Test
+    public void testLog() {
+        LogDispatcher subject = new LogDispatcher();
+        CallbackForTest warn = new CallbackForTest(Level.WARN);
+        CallbackForTest info = new CallbackForTest(Level.INFO);
+        subject.add(warn);
+        subject.add(info);
+        LogItem infoItem = new LogItem(Level.INFO, "info", null);
+        LogItem warnItem = new LogItem(Level.WARN, "warn", null);
+
+        subject.log(infoItem);
+        subject.log(warnItem);
+
+        assertEquals(singletonList(warnItem), warn.logItems);
+        assertEquals(asList(infoItem, warnItem), info.logItems);
+        assertSame(warn.logItems.get(0), info.logItems.get(1));
+    }
+
+    @Test
+    public void testLogFailure() {
+        LogDispatcher subject = new LogDispatcher();
+        subject.add(logItem -> {
+            throw new AssertionError("first");
+        });
+        subject.add(logItem -> {
+            throw new IllegalStateException("second");
+        });
+        CallbackForTest last = new CallbackForTest(Level.TRACE);
+        subject.add(last);
+
+        try {
+            subject.log(new LogItem(Level.ERROR, "error", null));
+            fail("expected the failure of the first callback");
+        } catch (AssertionError error) {
+            assertEquals("first", error.getMessage());
+        }
+        assertEquals(1, last.logItems.size());
+    }
+
+    @Test
+    public void testRemove() {
+        LogDispatcher subject = new LogDispatcher();
+        CallbackForTest first = new CallbackForTest(Level.TRACE);
+        CallbackForTest second = new CallbackForTest(Level.TRACE);
+        CallbackForTest third = new CallbackForTest(Level.TRACE);
+        subject.add(first);
+        subject.add(second);
+        subject.add(third);
+
+        subject.remove(second);
+        subject.remove(second);
+        subject.log(new LogItem(Level.INFO, "info", null));
+
+        assertEquals(1, first.logItems.size());
+        assertEquals(0, second.logItems.size());
+        assertEquals(1, third.logItems.size());
+    }
+
+    private static class CallbackForTest implements LogCallback {
+        private final List<LogItem> logItems = new ArrayList<>();
+
+        private final Level minimumLevel;
+
+        CallbackForTest(Level minimumLevel) {
+            this.minimumLevel = minimumLevel;
+        }
+
+        @Override
+        public Level getMinimumLevel() {
+            return minimumLevel;
+        }
+
+        @Override
+        public void log(LogItem logItem) {
+            logItems.add(logItem);
+        }
+    }
+}
@@ -17,21 +17,41 @@ public class LogbackLevelUtilTest {
         assertEquals(org.slf4j.event.Level.DEBUG, LogbackLevelUtil.convertLevel(Level.DEBUG));
     }
 
+    @Test
+    public void testConvertLevelDebugToLogback() {
+        assertEquals(Level.DEBUG, LogbackLevelUtil.convertLevel(org.slf4j.event.Level.DEBUG));
+    }
+
     @Test
     public void testConvertLevelError() {
         assertEquals(org.slf4j.event.Level.ERROR, LogbackLevelUtil.convertLevel(Level.ERROR));
     }
 
+    @Test
+    public void testConvertLevelErrorToLogback() {
+        assertEquals(Level.ERROR, LogbackLevelUtil.convertLevel(org.slf4j.event.Level.ERROR));
+    }
+
     @Test
     public void testConvertLevelInfo() {
         assertEquals(org.slf4j.event.Level.INFO, LogbackLevelUtil.convertLevel(Level.INFO));
     }
 
+    @Test
+    public void testConvertLevelInfoToLogback() {
+        assertEquals(Level.INFO, LogbackLevelUtil.convertLevel(org.slf4j.event.Level.INFO));
+    }
+
     @Test
     public void testConvertLevelTrace() {
         assertEquals(org.slf4j.event.Level.TRACE, LogbackLevelUtil.convertLevel(Level.TRACE));
     }
 
+    @Test
+    public void testConvertLevelTraceToLogback() {
+        assertEquals(Level.TRACE, LogbackLevelUtil.convertLevel(org.slf4j.event.Level.TRACE));
+    }
+
     @Test
     public void testConvertLevelUnknown() {
         try {
@@ -46,4 +66,9 @@ public class LogbackLevelUtilTest {
     public void testConvertLevelWarn() {
         assertEquals(org.slf4j.event.Level.WARN, LogbackLevelUtil.convertLevel(Level.WARN));
     }
+
+    @Test
+    public void testConvertLevelWarnToLogback() {
+        assertEquals(Level.WARN, LogbackLevelUtil.convertLevel(org.slf4j.event.Level.WARN));
+    }
 }
@@ -0,0 +1,75 @@
+package testlog.impl;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class LoggingFactoryTest {
+    @Test
+    public void testChooseProviderHighestPriority() {
+        LoggingProvider low = new ProviderForTest(1, true);
+        LoggingProvider high = new ProviderForTest(2, true);
+        assertSame(high, LoggingFactory.chooseProvider(asList(low, high)));
+        assertSame(high, LoggingFactory.chooseProvider(asList(high, low)));
+    }
+
+    @Test
+    public void testChooseProviderNoneAvailable() {
+        try {
+            LoggingFactory.chooseProvider(emptyList());
+            fail("expected an exception for not finding a logging implementation");
+        } catch (RuntimeException exception) {
+            assertEquals("no supported logging implementation found, registered as testlog.impl.LoggingProvider",
+                    exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testChooseProviderSkipsUnavailable() {
+        LoggingProvider available = new ProviderForTest(1, true);
+        LoggingProvider unavailable = new ProviderForTest(2, false);
+        assertSame(available, LoggingFactory.chooseProvider(asList(available, unavailable)));
+    }
+
+    @Test
+    public void testGetLogging() {
+        assertSame(LoggingFactory.getLogging(), LoggingFactory.getLogging());
+    }
+
+    @Test
+    public void testGetProvider() {
+        // log4j is on the test class path of this module, next to logback
+        assertEquals(Log4jLoggingProvider.class, LoggingFactory.getProvider().getClass());
+        assertSame(LoggingFactory.getProvider(), LoggingFactory.getProvider());
+    }
+
+    private static class ProviderForTest implements LoggingProvider {
+        private final boolean available;
+
+        private final int priority;
+
+        ProviderForTest(int priority, boolean available) {
+            this.priority = priority;
+            this.available = available;
+        }
+
+        @Override
+        public Logging createLogging() {
+            return null;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package testlog.impl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MuteSwitchTest {
+    @Test
+    public void testHold() {
+        MuteSwitch subject = new MuteSwitch();
+        assertFalse(subject.isMuted());
+
+        assertTrue(subject.hold());
+        assertFalse(subject.hold());
+        assertTrue(subject.isMuted());
+        assertTrue(subject.isHeld());
+    }
+
+    @Test
+    public void testRelease() {
+        MuteSwitch subject = new MuteSwitch();
+        subject.hold();
+        subject.hold();
+
+        assertFalse(subject.release());
+        assertTrue(subject.isMuted());
+
+        assertTrue(subject.release());
+        assertFalse(subject.isMuted());
+        assertFalse(subject.isHeld());
+    }
+
+    @Test
+    public void testReleaseTooOften() {
+        MuteSwitch subject = new MuteSwitch();
+        assertFalse(subject.release());
+
+        assertTrue(subject.hold());
+        assertTrue(subject.isMuted());
+    }
+}
@@ -0,0 +1,109 @@
+package testlog.matcher;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static testlog.matcher.LogItemMatchers.messageContainsAll;
+import static testlog.matcher.LogItemMatchers.messageContainsAny;
+import static testlog.matcher.LogItemMatchers.messageGlob;
+import static testlog.matcher.LogItemMatchers.messageMatches;
+
+public class LogItemMatchersTest {
+    @Test
+    public void testKeywordAutomatonEmptyKeyword() {
+        try {
+            new KeywordAutomaton("he", "");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Keywords should not be empty", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testKeywordAutomatonOverlapping() {
+        KeywordAutomaton subject = new KeywordAutomaton("he", "she", "his", "hers");
+        List<Integer> found = new ArrayList<>();
+        assertFalse(subject.scan("ushers", keywordIndex -> !found.add(keywordIndex)));
+        assertEquals(asList(1, 0, 3), found);
+    }
+
+    @Test
+    public void testKeywordAutomatonStops() {
+        KeywordAutomaton subject = new KeywordAutomaton("a");
+        List<Integer> found = new ArrayList<>();
+        assertTrue(subject.scan("aaa", keywordIndex -> found.add(keywordIndex) && found.size() == 2));
+        assertEquals(asList(0, 0), found);
+    }
+
+    @Test
+    public void testMessageContainsAll() {
+        Matcher<LogItem> subject = messageContainsAll("timed out", "café", "timed out");
+        assertTrue(subject.matches(logItem("café: request timed out")));
+        assertFalse(subject.matches(logItem("cafe: request timed out")));
+        assertFalse(subject.matches(logItem(null)));
+        assertEquals("log item with a message that contains all of \"timed out\", \"café\", \"timed out\"",
+                StringDescription.toString(subject));
+    }
+
+    @Test
+    public void testMessageContainsAny() {
+        Matcher<LogItem> subject = messageContainsAny("refused", "timed out", "€");
+        assertTrue(subject.matches(logItem("connection refused")));
+        assertTrue(subject.matches(logItem("amount 12 €")));
+        assertFalse(subject.matches(logItem("connection timed in")));
+        assertFalse(subject.matches(logItem(null)));
+        assertEquals("log item with a message that contains any of \"refused\", \"timed out\", \"€\"",
+                StringDescription.toString(subject));
+    }
+
+    @Test
+    public void testMessageContainsAnyEmptyKeyword() {
+        try {
+            messageContainsAny("refused", "");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Keywords should not be empty", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMessageGlob() {
+        Matcher<LogItem> subject = messageGlob("order ? of * (total $1.00)");
+        assertTrue(subject.matches(logItem("order 7 of acme (total $1.00)")));
+        assertTrue(subject.matches(logItem("order 7 of \nacme (total $1.00)")));
+        assertFalse(subject.matches(logItem("order 17 of acme (total $1.00)")));
+        assertFalse(subject.matches(logItem("order 7 of acme (total $1x00)")));
+        assertFalse(subject.matches(logItem(null)));
+        assertEquals("log item with a message that matches glob \"order ? of * (total $1.00)\"",
+                StringDescription.toString(subject));
+    }
+
+    @Test
+    public void testMessageMatches() {
+        Matcher<LogItem> subject = messageMatches("order \\d+ (accepted|rejected)");
+        assertTrue(subject.matches(logItem("order 17 rejected")));
+        assertFalse(subject.matches(logItem("order 17 rejected twice")));
+        assertFalse(subject.matches(logItem(null)));
+        assertEquals("log item with a message that matches pattern \"order \\\\d+ (accepted|rejected)\"",
+                StringDescription.toString(subject));
+
+        assertTrue(messageMatches(Pattern.compile("ORDER.*", Pattern.CASE_INSENSITIVE))
+                .matches(logItem("order 17 rejected")));
+    }
+
+    private static LogItem logItem(String message) {
+        return new LogItem(Level.WARN, message, null);
+    }
+}
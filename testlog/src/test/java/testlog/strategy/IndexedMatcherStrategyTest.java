@@ -0,0 +1,108 @@
+package testlog.strategy;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedMatcherStrategyTest {
+    @Test
+    public void testDescribeRemainingExpectations() {
+        IndexedMatcherStrategy subject = new IndexedMatcherStrategy()
+                .addExpectation(Level.WARN, "com.acme", "invoice", null)
+                .addExpectation(null, null, null, null);
+
+        assertEquals("WARN of com.acme starting with \"invoice\", any log item",
+                subject.describeRemainingExpectations());
+        assertEquals(2, subject.getRemainingCount());
+    }
+
+    @Test
+    public void testMatchesNextExpectation() {
+        IndexedMatcherStrategy subject = new IndexedMatcherStrategy()
+                .addExpectation(Level.WARN, "com.acme", "invoice", hasProperty("message", endsWith("late")))
+                .addExpectation(Level.ERROR, null, null, null);
+
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, "com.acme.billing", "invoice 1 is late")));
+        assertTrue(subject.hasRemainingExpectations());
+        assertFalse(subject.matchesNextExpectation(logItem(Level.WARN, "com.acme", "invoice 2 is late")));
+        assertFalse(subject.hasRemainingExpectations());
+        assertFalse(subject.matchesNextExpectation(logItem(Level.ERROR, "com.acme", "error")));
+    }
+
+    @Test
+    public void testMatchesNextExpectationDiscriminators() {
+        assertFalse(new IndexedMatcherStrategy().addExpectation(Level.WARN, null, null, null)
+                .matchesNextExpectation(logItem(Level.ERROR, "com.acme", "invoice")));
+        assertFalse(new IndexedMatcherStrategy().addExpectation(null, "com.acme", null, null)
+                .matchesNextExpectation(logItem(Level.ERROR, "com.acmesoft", "invoice")));
+        assertFalse(new IndexedMatcherStrategy().addExpectation(null, "com.acme", null, null)
+                .matchesNextExpectation(logItem(Level.ERROR, null, "invoice")));
+        assertFalse(new IndexedMatcherStrategy().addExpectation(null, null, "invoice", null)
+                .matchesNextExpectation(logItem(Level.ERROR, "com.acme", "the invoice")));
+        assertTrue(new IndexedMatcherStrategy().addExpectation(null, "", null, null)
+                .matchesNextExpectation(logItem(Level.ERROR, "com.acme", "invoice")));
+    }
+
+    @Test
+    public void testCountCandidates() {
+        IndexedMatcherStrategy subject = new IndexedMatcherStrategy();
+        for (int i = 0; i < 1000; i++) {
+            subject.addExpectation(Level.WARN, "com.acme.contracts", "contract " + i + " ", null);
+        }
+
+        assertEquals(1, subject.countCandidates(logItem(Level.WARN, "com.acme.contracts", "contract 500 expired")));
+        assertEquals(0, subject.countCandidates(logItem(Level.WARN, "com.acme.contracts", "contract 5000 expired")));
+        assertEquals(0, subject.countCandidates(logItem(Level.WARN, "com.acme.contracts", "invoice 500 expired")));
+
+        subject.removeLaterExpectationForEfficiency(logItem(Level.WARN, "com.acme.contracts", "contract 500 expired"));
+        assertEquals(999, subject.getRemainingCount());
+        assertEquals(0, subject.countCandidates(logItem(Level.WARN, "com.acme.contracts", "contract 500 expired")));
+    }
+
+    @Test
+    public void testCountCandidatesOfNestedPrefixes() {
+        IndexedMatcherStrategy subject = new IndexedMatcherStrategy()
+                .addExpectation(Level.WARN, "com.acme", "contract", null)
+                .addExpectation(Level.WARN, "com.acme", "contract 1", null)
+                .addExpectation(Level.WARN, "com.acme", "contract 11", null)
+                .addExpectation(Level.WARN, "com.acme", "contract 12 ", null)
+                .addExpectation(Level.WARN, "com.acme", "contract 123", null)
+                .addExpectation(Level.WARN, "com.acme", null, null);
+
+        assertEquals(4, subject.countCandidates(logItem(Level.WARN, "com.acme", "contract 12 expired")));
+        assertEquals(2, subject.countCandidates(logItem(Level.WARN, "com.acme", "contract")));
+        assertEquals(1, subject.countCandidates(logItem(Level.WARN, "com.acme", "")));
+    }
+
+    @Test
+    public void testRemoveLaterExpectationForEfficiency() {
+        IndexedMatcherStrategy subject = new IndexedMatcherStrategy()
+                .addExpectation(Level.WARN, "com.acme", null, null)
+                .addExpectation(Level.ERROR, "com.acme.billing", "second", null)
+                .addExpectation(null, "com.acme", "third", null)
+                .addExpectation(Level.ERROR, "com.acme", null, null);
+
+        subject.removeLaterExpectationForEfficiency(logItem(Level.ERROR, "com.acme.billing.invoice", "third"));
+        assertEquals("WARN of com.acme, ERROR of com.acme.billing starting with \"second\", ERROR of com.acme",
+                subject.describeRemainingExpectations());
+
+        subject.removeLaterExpectationForEfficiency(logItem(Level.ERROR, "com.acme.billing", "second"));
+        assertEquals(2, subject.getRemainingCount());
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, "com.acme", "first")));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.ERROR, "com.acme", "fourth")));
+        assertFalse(subject.hasRemainingExpectations());
+
+        subject.removeLaterExpectationForEfficiency(logItem(Level.ERROR, "com.acme", "fifth"));
+        assertEquals(0, subject.getRemainingCount());
+    }
+
+    private static LogItem logItem(Level level, String loggerName, String message) {
+        return new LogItem(level, loggerName, () -> message, null);
+    }
+}
@@ -0,0 +1,58 @@
+package testlog.strategy;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LevelCountsStrategyTest {
+    @Test
+    public void testAnyOrder() {
+        LevelCountsStrategy subject = new LevelCountsStrategy(Level.WARN, Level.ERROR, Level.WARN);
+
+        assertTrue(subject.matchesNextExpectation(logItem(Level.ERROR)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN)));
+        assertFalse(subject.matchesNextExpectation(logItem(Level.ERROR)));
+        assertEquals(1, subject.getRemainingCount());
+        assertTrue(subject.hasRemainingExpectations());
+
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN)));
+        assertEquals(0, subject.getRemainingCount());
+        assertFalse(subject.hasRemainingExpectations());
+    }
+
+    @Test
+    public void testDescribeRemainingExpectations() {
+        LevelCountsStrategy subject = new LevelCountsStrategy(Level.ERROR).withCount(300, Level.WARN);
+
+        assertEquals("1 ERROR, 300 WARN", subject.describeRemainingExpectations());
+        assertEquals(301, subject.getRemainingCount());
+    }
+
+    @Test
+    public void testRemoveLaterExpectationForEfficiency() {
+        LevelCountsStrategy subject = new LevelCountsStrategy(Level.WARN);
+
+        subject.removeLaterExpectationForEfficiency(logItem(Level.ERROR));
+
+        assertEquals(1, subject.getRemainingCount());
+    }
+
+    @Test
+    public void testWithCountInvalid() {
+        try {
+            new LevelCountsStrategy().withCount(0, Level.WARN);
+            fail("expected an exception for the invalid count");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Expected count should be at least 1, was 0", exception.getMessage());
+        }
+    }
+
+    private static LogItem logItem(Level level) {
+        return new LogItem(level, "statement", null);
+    }
+}
@@ -0,0 +1,145 @@
+package testlog.strategy;
+
+import org.junit.Test;
+import org.slf4j.event.Level;
+import testlog.LogContext;
+import testlog.LogItem;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static testlog.matcher.LogItemMatchers.level;
+
+public class RateStrategyTest {
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void testMaximumCount() {
+        RateStrategy subject = new RateStrategy(2, Duration.ofSeconds(10), Level.WARN);
+
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START + 5_000)));
+        assertFalse(subject.matchesNextExpectation(logItem(Level.ERROR, START + 5_000)));
+        assertFalse(subject.matchesNextExpectation(logItem(Level.WARN, START + 9_000)));
+        assertEquals(3, subject.getPeakRate(), 0);
+        assertEquals("exceeds at most 2 WARN per 10000ms, peaked at 3 WARN per 10000ms",
+                subject.describeMismatch(logItem(Level.WARN, START + 9_000)));
+        assertNull(subject.describeMismatch(logItem(Level.ERROR, START + 9_000)));
+        assertFalse(subject.hasRemainingExpectations());
+        assertEquals(0, subject.getRemainingCount());
+    }
+
+    @Test
+    public void testMaximumCountInvalid() {
+        try {
+            new RateStrategy(0, Duration.ofSeconds(10), Level.WARN);
+            fail("expected an exception for the invalid count");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Maximum count should be at least 1, was 0", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testMaximumCountSlidingWindow() {
+        RateStrategy subject = new RateStrategy(2, Duration.ofSeconds(10), Level.WARN, Level.ERROR);
+
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.ERROR, START + 9_000)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START + 12_000)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START + 100_000)));
+        assertEquals(2, subject.getPeakRate(), 0);
+        assertEquals("at most 2 ERROR/WARN per 10000ms", subject.describeRemainingExpectations());
+    }
+
+    @Test
+    public void testMaximumCountSmallWindow() {
+        RateStrategy subject = new RateStrategy(1, Duration.ofMillis(20), Level.WARN);
+
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START)));
+        assertFalse(subject.matchesNextExpectation(logItem(Level.WARN, START + 10)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START + 1_000)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.WARN, START + 1_021)));
+        assertEquals(2, subject.getPeakRate(), 0);
+    }
+
+    @Test
+    public void testMaximumRatio() {
+        RateStrategy subject = new RateStrategy(0.25, level(Level.INFO), Duration.ofSeconds(10), Level.ERROR);
+
+        assertFalse(subject.matchesNextExpectation(logItem(Level.ERROR, START)));
+        assertEquals(Double.POSITIVE_INFINITY, subject.getPeakRate(), 0);
+
+        subject = new RateStrategy(0.25, level(Level.INFO), Duration.ofSeconds(10), Level.ERROR);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(subject.matchesNextExpectation(logItem(Level.INFO, START + i)));
+        }
+        assertTrue(subject.matchesNextExpectation(logItem(Level.ERROR, START + 10)));
+        assertTrue(subject.matchesNextExpectation(logItem(Level.ERROR, START + 10)));
+        assertFalse(subject.matchesNextExpectation(logItem(Level.ERROR, START + 10)));
+        assertFalse(subject.matchesNextExpectation(logItem(Level.WARN, START + 10)));
+        assertEquals(0.375, subject.getPeakRate(), 0);
+        assertEquals("exceeds at most 25.00% ERROR of the base log items per 10000ms, "
+                        + "peaked at 37.50% ERROR of the base log items per 10000ms",
+                subject.describeMismatch(logItem(Level.ERROR, START + 10)));
+    }
+
+    @Test
+    public void testMaximumRatioInvalid() {
+        try {
+            new RateStrategy(0, level(Level.INFO), Duration.ofSeconds(10), Level.ERROR);
+            fail("expected an exception for the invalid ratio");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Maximum ratio should be above 0, was 0.0", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testWindowInvalid() {
+        try {
+            new RateStrategy(1, Duration.ZERO, Level.WARN);
+            fail("expected an exception for the invalid window");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Window should be positive, was PT0S", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testWithoutTimestamp() {
+        RateStrategy subject = new RateStrategy(1, Duration.ofMinutes(1), Level.WARN);
+
+        assertTrue(subject.matchesNextExpectation(new LogItem(Level.WARN, "statement", null)));
+        assertFalse(subject.matchesNextExpectation(new LogItem(Level.WARN, "statement", null)));
+    }
+
+    private static LogItem logItem(Level level, long timestamp) {
+        return new LogItem(level, "com.acme", () -> "statement", null, new LogContext() {
+            @Override
+            public List<String> getMarkers() {
+                return emptyList();
+            }
+
+            @Override
+            public Map<String, String> getMdc() {
+                return emptyMap();
+            }
+
+            @Override
+            public String getThreadName() {
+                return "main";
+            }
+
+            @Override
+            public long getTimestamp() {
+                return timestamp;
+            }
+        });
+    }
+}